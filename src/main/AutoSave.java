@@ -0,0 +1,154 @@
+package main;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
+
+/**
+ * Saves the game periodically while it is being played. The interval is
+ * counted in ticks, so a save always starts between two ticks, and only
+ * the copy of the state is done in the game thread; the database is
+ * written by the save thread of the GameManager. A save that is due while
+ * the previous one is still being written waits for it instead of piling
+ * up, and a save of a game that didn't change since the last one is
+ * skipped.
+ */
+public class AutoSave {
+
+    public static final int DEFAULT_INTERVAL = 60; // Seconds between saves
+    public static final long CAPTURE_BUDGET = 1000000; // Nanoseconds of a frame the copy should take at most
+
+    GamePanel gamePanel;
+
+    private int intervalTicks;
+    private int ticks = 0;
+    private CompletableFuture<Integer> inFlight;
+    private volatile SaveSnapshot lastSaved;
+
+    // Metrics
+    private volatile int saves = 0;
+    private volatile int failures = 0;
+    private int skipped = 0;
+    private int coalesced = 0;
+    private long lastCaptureNanos = 0;
+    private volatile long lastLatency = 0;
+    private volatile long maxLatency = 0;
+    private volatile long totalLatency = 0;
+    private volatile int lastSize = 0;
+
+    /**
+     * Creates an AutoSave with the default interval.
+     *
+     * @param gamePanel GamePanel of the game to save.
+     */
+    public AutoSave(GamePanel gamePanel) {
+        this.gamePanel = gamePanel;
+        setInterval(DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Changes the time between saves.
+     *
+     * @param seconds Seconds between saves, 0 or less to disable them.
+     */
+    public void setInterval(int seconds) {
+        intervalTicks = seconds > 0 ? seconds * gamePanel.FPS : 0;
+        ticks = 0;
+    }
+
+    /** Returns true if the game is saved periodically. */
+    public boolean isEnabled() {
+        return intervalTicks > 0;
+    }
+
+    /**
+     * Counts a tick of the game, saving it if the interval has passed.
+     * Must be called from the game thread after the game is updated.
+     */
+    public void update() {
+        if (!isEnabled() || ++ticks < intervalTicks) {
+            return;
+        }
+
+        // The save stays due until the previous one is written
+        if (inFlight != null && !inFlight.isDone()) {
+            coalesced++;
+            return;
+        }
+        ticks = 0;
+
+        long start = System.nanoTime();
+        SaveSnapshot snapshot = SaveSnapshot.capture(gamePanel.currentGame);
+        lastCaptureNanos = System.nanoTime() - start;
+        if (lastCaptureNanos > CAPTURE_BUDGET) {
+            GamePanel.logger.log(Level.WARNING, "Autosave copy took " + lastCaptureNanos / 1000 + " us");
+        }
+
+        if (snapshot.sameState(lastSaved)) {
+            skipped++;
+            GamePanel.logger.log(Level.FINE, "Autosave skipped, nothing changed");
+            return;
+        }
+
+        long submitted = System.nanoTime();
+        inFlight = gamePanel.gameManager.saveGameAsync(snapshot);
+        inFlight.whenComplete((code, error) -> {
+            long latency = (System.nanoTime() - submitted) / 1000000;
+            if (error != null) {
+                failures++;
+                return;
+            }
+            lastSaved = snapshot;
+            lastLatency = latency;
+            maxLatency = Math.max(maxLatency, latency);
+            totalLatency += latency;
+            lastSize = snapshot.size();
+            saves++;
+            GamePanel.logger.log(Level.INFO, "Autosaved " + lastSize + " rows in " + latency + " ms");
+        });
+    }
+
+    /** Returns the amount of autosaves written. */
+    public int getSaves() {
+        return saves;
+    }
+
+    /** Returns the amount of autosaves that failed. */
+    public int getFailures() {
+        return failures;
+    }
+
+    /** Returns the amount of autosaves skipped because nothing changed. */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /** Returns the amount of ticks a due autosave waited for the previous one. */
+    public int getCoalesced() {
+        return coalesced;
+    }
+
+    /** Returns the nanoseconds the game thread spent copying the last autosave. */
+    public long getLastCaptureNanos() {
+        return lastCaptureNanos;
+    }
+
+    /** Returns the milliseconds the last autosave took to be written. */
+    public long getLastLatency() {
+        return lastLatency;
+    }
+
+    /** Returns the most milliseconds an autosave took to be written. */
+    public long getMaxLatency() {
+        return maxLatency;
+    }
+
+    /** Returns the average milliseconds an autosave takes to be written. */
+    public long getAverageLatency() {
+        return saves == 0 ? 0 : totalLatency / saves;
+    }
+
+    /** Returns the rows of the last autosave. */
+    public int getLastSize() {
+        return lastSize;
+    }
+}
@@ -0,0 +1,118 @@
+package main;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.logging.Level;
+
+/**
+ * Saves each game in its own binary file (see SaveFile), named after the
+ * code of the game. The whole state of a game is written with a couple of
+ * channel writes instead of a row per entity, so saves are fast and small
+ * even with many entities. The game is still listed in the GAMES table of
+ * the database, which gives it its code.
+ */
+public class BinarySaveBackend implements SaveBackend {
+
+    public static final String NAME = "binary";
+    public static final String DIRECTORY = "saves";
+    public static final String EXTENSION = ".sav";
+
+    GamePanel gamePanel;
+
+    private final SqliteSaveBackend catalogue;
+    private final Path directory;
+    private final boolean compress;
+
+    // Game last written, so the saves of a new game captured before its first one was written reuse its code
+    private long lastToken; // 0 if none
+    private int lastCode;
+
+    /**
+     * Creates a BinarySaveBackend.
+     *
+     * @param gamePanel GamePanel of the game.
+     * @param catalogue Backend keeping the list of saved games.
+     * @param directory Directory of the save files, created if needed.
+     * @param compress  True to compress the save files.
+     */
+    public BinarySaveBackend(GamePanel gamePanel, SqliteSaveBackend catalogue, Path directory, boolean compress) {
+        this.gamePanel = gamePanel;
+        this.catalogue = catalogue;
+        this.directory = directory;
+        this.compress = compress;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public int write(SaveSnapshot snapshot) throws IOException {
+
+        Integer code = snapshot.gameCode;
+        synchronized (this) {
+            if (code == null && snapshot.gameToken != 0 && snapshot.gameToken == lastToken) {
+                code = lastCode;
+            }
+        }
+
+        int gameCode;
+        try {
+            gameCode = catalogue.writeGame(code, snapshot);
+        } catch (SQLException e) {
+            throw new IOException("SQLite connection failed: " + e.getMessage(), e);
+        }
+
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            int size = SaveFile.write(snapshot.withGameCode(gameCode), getPath(gameCode), compress);
+            GamePanel.logger.log(Level.INFO, "Game saved (" + size + " bytes) in "
+                    + (System.nanoTime() - start) / 1000 + " us");
+            synchronized (this) {
+                lastToken = snapshot.gameToken;
+                lastCode = gameCode;
+            }
+            return gameCode;
+
+        } catch (IOException e) {
+            // A new game without its file isn't listed
+            if (code == null) {
+                try {
+                    catalogue.removeGame(gameCode);
+                } catch (SQLException ex) {
+                    GamePanel.logger.log(Level.WARNING, "Failed Removing Game " + gameCode, ex);
+                }
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public SaveSnapshot read(int code) throws IOException {
+        try {
+            return SaveFile.read(getPath(code));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void delete(int code) throws IOException {
+        synchronized (this) {
+            if (lastToken != 0 && lastCode == code) {
+                lastToken = 0;
+            }
+        }
+        Files.deleteIfExists(getPath(code));
+    }
+
+    /** Returns the file of the game with a given code. */
+    public Path getPath(int code) {
+        return directory.resolve(code + EXTENSION);
+    }
+}
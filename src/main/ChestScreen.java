@@ -184,7 +184,16 @@ public class ChestScreen implements Drawable {
 				}
 			}
 		}
-		int itemIndex = getItemIndexOnSlotChest();
+		takeItem(chest, getItemIndexOnSlotChest());
+	}
+
+	/**
+	 * Takes an item from a chest, swapping swords for the one of the player.
+	 * 
+	 * @param chest     Chest with the item.
+	 * @param itemIndex Index of the item in the chest.
+	 */
+	void takeItem(ASSET_Chest chest, int itemIndex) {
 		if (itemIndex < chest.chestItems.size()) {
 			SuperItem selectedItem = chest.chestItems.get(itemIndex);
 			if (selectedItem instanceof ITEM_woodenSword) {
@@ -253,6 +262,10 @@ public class ChestScreen implements Drawable {
 					chest.chestItems.remove(itemIndex);
 				}
 			}
+
+			// The slot is empty if the item taken was the last one
+			SuperItem left = itemIndex < chest.chestItems.size() ? chest.chestItems.get(itemIndex) : null;
+			gamePanel.currentGame.statistics.countPickUp(selectedItem, left);
 		}
 	}
 
@@ -0,0 +1,140 @@
+package main;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.logging.Level;
+
+/**
+ * Single long-lived connection to the save database. The connection is
+ * opened the first time it is needed, its schema is migrated to the
+ * version the code expects (see SchemaMigrations) and it is configured
+ * for a game (WAL journal, so reads don't wait for writes, a relaxed
+ * synchronous level and foreign keys enforced), and the prepared
+ * statements are cached, so listings and saves don't pay the connection
+ * setup or the parsing of the SQL every time.
+ * The cached statements are shared, so callers must hold the lock of the
+ * Database (synchronized (database) {...}) while they use a statement
+ * and its results.
+ */
+public class Database {
+
+    public static final String URL = "jdbc:sqlite:src/main/dataBase/DB.db";
+    public static final int BUSY_TIMEOUT = 5000; // Milliseconds waiting for a locked database
+
+    private final String url;
+    private final HashMap<String, PreparedStatement> statements = new HashMap<>();
+    private Connection connection;
+
+    /**
+     * Creates a Database. The connection isn't opened until it is used.
+     *
+     * @param url JDBC url of the database.
+     */
+    public Database(String url) {
+        this.url = url;
+    }
+
+    /**
+     * Returns the connection to the database, opening it if needed.
+     *
+     * @return the open connection.
+     * @throws SQLException if the database can't be opened.
+     */
+    public synchronized Connection getConnection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            open();
+        }
+        return connection;
+    }
+
+    /**
+     * Returns a cached prepared statement for a given SQL,
+     * preparing it the first time it is used.
+     *
+     * @param sql SQL of the statement, with ? as parameters.
+     * @return the statement, with its parameters cleared.
+     * @throws SQLException if the statement can't be prepared.
+     */
+    public synchronized PreparedStatement prepare(String sql) throws SQLException {
+        Connection conn = getConnection();
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null || statement.isClosed()) {
+            statement = conn.prepareStatement(sql);
+            statements.put(sql, statement);
+        } else {
+            statement.clearParameters();
+        }
+        return statement;
+    }
+
+    /** Returns true if the connection is open. */
+    public synchronized boolean isOpen() {
+        try {
+            return connection != null && !connection.isClosed();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Closes the cached statements and the connection. The next
+     * use of the database opens it again.
+     */
+    public synchronized void close() {
+        for (PreparedStatement statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                GamePanel.logger.log(Level.WARNING, "Failed Closing Statement", e);
+            }
+        }
+        statements.clear();
+
+        if (connection != null) {
+            try {
+                connection.close();
+                GamePanel.logger.log(Level.INFO, "Database Closed");
+            } catch (SQLException e) {
+                GamePanel.logger.log(Level.WARNING, "Failed Closing Database", e);
+            }
+            connection = null;
+        }
+    }
+
+    /**
+     * Opens the connection, migrates the schema and sets the
+     * pragmas of the database.
+     *
+     * @throws SQLException if the database can't be opened or migrated.
+     */
+    private void open() throws SQLException {
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("SQLite driver not found", e);
+        }
+
+        long start = System.nanoTime();
+        statements.clear();
+        connection = DriverManager.getConnection(url);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("PRAGMA journal_mode = WAL;");
+            stmt.execute("PRAGMA synchronous = NORMAL;");
+            stmt.execute("PRAGMA busy_timeout = " + BUSY_TIMEOUT + ";");
+
+            // Tables are rebuilt by the migrations before foreign keys are enforced
+            SchemaMigrations.migrate(connection);
+            stmt.execute("PRAGMA foreign_keys = ON;");
+        } catch (SQLException e) {
+            // The next use tries again instead of using a database in an unknown state
+            connection.close();
+            connection = null;
+            throw e;
+        }
+        GamePanel.logger.log(Level.INFO, "Database Opened in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+}
@@ -3,6 +3,8 @@ package main;
 import java.awt.Rectangle;
 import java.awt.event.KeyEvent;
 
+import main.entities.Direction;
+
 public class EventHandler {
 
 	GamePanel gamePanel;
@@ -22,12 +24,12 @@ public class EventHandler {
 	}
 	
 	public void checkEvent() {
-		if (hit(25, 32, "up") == true) {
+		if (hit(25, 32, Direction.UP) == true) {
 			readSign();
 		}
 	}
 	
-	public boolean hit(int eventCol, int eventRow, String reqDirection) {
+	public boolean hit(int eventCol, int eventRow, Direction reqDirection) {
 		boolean hit = false;
 		
 		gamePanel.player.collisionBox.x = gamePanel.player.worldX + gamePanel.player.collisionBox.x;
@@ -36,7 +38,7 @@ public class EventHandler {
 		eventRect.y = eventRow*gamePanel.tileSize + eventRect.y;
 		
 		if (gamePanel.player.collisionBox.intersects(eventRect)) {
-			if (gamePanel.player.direction.contentEquals(reqDirection) || reqDirection.contentEquals("any")) {
+			if (reqDirection == null || gamePanel.player.direction == reqDirection) {
 				hit = true;
 			}
 		}
@@ -1,6 +1,7 @@
 package main;
 
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 import main.entities.Entity;
 import main.entities.Player;
@@ -12,16 +13,26 @@ import main.entities.Player;
  */
 public class Game {
 
+    // Tokens given to the games played since the program started
+    private static final AtomicLong TOKENS = new AtomicLong();
+
     // Game panel
     public GamePanel gamePanel;
 
     // Game data
     public Integer gameCode;
+    public long token = nextToken(); // Tells games apart before they have a code, even if named alike
     public String gameName;
     public String date;
     public Player player;
     public ArrayList<Entity> entities;
 
+    // Next id given to an entity saved for the first time
+    public int nextSaveId = 1;
+
+    // Counters of what happens while the game is played
+    public GameStatistics statistics = new GameStatistics();
+
     /**
      * Creates a Game object from a GamePanel object.
      * 
@@ -34,4 +45,11 @@ public class Game {
         this.player = gamePanel.player;
         this.entities = gamePanel.entityManager.entities;
     }
+
+    /**
+     * Returns a token for a game started or loaded, never 0.
+     */
+    public static long nextToken() {
+        return TOKENS.incrementAndGet();
+    }
 }
@@ -1,11 +1,22 @@
 package main;
 
 import main.entities.Enemy;
+import main.entities.EnemyArchetype;
 import main.items.*;
+import main.tiles.GameMap;
+import main.tiles.WorldManager;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Level;
 
 /**
@@ -18,6 +29,28 @@ public class GameManager {
     public GamePanel gamePanel;
     public Game currentGame;
 
+    // Where the games are saved (the database keeps the list of games for all of them)
+    public final SqliteSaveBackend sqliteBackend;
+    public volatile SaveBackend backend;
+
+    // Saves are written one after another in this thread
+    private final ExecutorService saveThread = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Save Writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Saves written by the save thread, completed in the game thread
+    private final ConcurrentLinkedQueue<Runnable> writtenSaves = new ConcurrentLinkedQueue<>();
+
+    // Statements cached by the database
+    private static final String DELETE_GAME_SQL = "DELETE FROM GAMES WHERE CODE = ?;";
+    private static final String RECENT_GAMES_SQL = "SELECT CODE, NAME FROM GAMES ORDER BY DATE DESC LIMIT 5;";
+    private static final String COUNT_GAMES_SQL = "SELECT COUNT(*) FROM GAMES;";
+    private static final String GAMES_AFTER_SQL = "SELECT CODE, NAME, DATE FROM GAMES WHERE CODE > ? ORDER BY CODE LIMIT ?;";
+    private static final String GAMES_BEFORE_SQL = "SELECT CODE, NAME, DATE FROM GAMES WHERE CODE < ? ORDER BY CODE DESC LIMIT ?;";
+    private static final String GAMES_AT_SQL = "SELECT CODE, NAME, DATE FROM GAMES ORDER BY CODE LIMIT ? OFFSET ?;";
+
     /**
      * Creates a game manager given the current game state.
      * 
@@ -26,60 +59,114 @@ public class GameManager {
     public GameManager(GamePanel gamePanel, Game currentGame) {
         this.gamePanel = gamePanel;
         this.currentGame = currentGame;
+        this.sqliteBackend = new SqliteSaveBackend(gamePanel);
+        this.backend = sqliteBackend;
     }
 
-    /** Saves the state of the game in a database. */
+    /**
+     * Chooses where the games are saved. Games saved in another backend
+     * can still be loaded from the database.
+     * 
+     * @param name     Name of the backend ("sqlite" or "binary").
+     * @param compress True to compress the saves, if the backend can.
+     */
+    public void setBackend(String name, boolean compress) {
+        switch (name) {
+            case SqliteSaveBackend.NAME:
+                backend = sqliteBackend;
+                break;
+            case BinarySaveBackend.NAME:
+                backend = new BinarySaveBackend(gamePanel, sqliteBackend,
+                        Paths.get(BinarySaveBackend.DIRECTORY), compress);
+                break;
+            default:
+                GamePanel.logger.log(Level.WARNING, "Unknown Save Backend " + name + ", Using " + backend.getName());
+                return;
+        }
+        GamePanel.logger.log(Level.INFO, "Saving Games With " + backend.getName());
+    }
+
+    /**
+     * Saves the state of the game in the database, waiting until it is
+     * written. Must be called from the game thread.
+     */
     public void saveGame() {
+        CompletableFuture<Integer> save = saveGameAsync();
+
+        // Saves are written in order, so it is written once the save thread gets to an empty task
+        CompletableFuture.runAsync(() -> {
+        }, saveThread).join();
+        update();
         try {
-            Class.forName("org.sqlite.JDBC");
-            String url = "jdbc:sqlite:src/main/dataBase/DB.db";
-
-            try (Connection conn = DriverManager.getConnection(url)) {
-                Statement stmt = conn.createStatement();
-
-                // SAVE GAME
-                stmt.executeUpdate(
-                        "INSERT INTO GAMES (NAME, DATE) VALUES ('" + currentGame.gameName + "', '" + currentGame.date
-                                + "');");
-
-                // SET GAME CODE
-                ResultSet rs = stmt.executeQuery("SELECT last_insert_rowid() AS id FROM GAMES;");
-                currentGame.gameCode = rs.getInt("id");
-
-                // SAVE PLAYER
-                stmt.executeUpdate(
-                        "INSERT INTO PLAYER (GAME_CODE, POSX, POSY, HEALTH, STAMINA, ITEM) VALUES ('"
-                                + currentGame.gameCode + "', '" + currentGame.player.worldX + "', '"
-                                + currentGame.player.worldY + "', '" + currentGame.player.health + "', '"
-                                + currentGame.player.stamina + "', 'SWORD');");
-
-                // SAVE ENTITIES
-                for (int i = 0; i < currentGame.entities.size(); i++) {
-                    if(currentGame.entities.get(i) instanceof Enemy) {
-                        stmt.executeUpdate(
-                            "INSERT INTO ENTITIES (GAME_CODE, TYPE, POSX, POSY) VALUES ('" + currentGame.gameCode
-                                    + "', 'ENEMY', '" + currentGame.entities.get(i).worldX + "', '"
-                                    + currentGame.entities.get(i).worldY + "');");
-                    }
-                }
+            save.join();
+        } catch (CompletionException e) {
+            // Already logged by the save thread
+        }
+    }
 
-                // SAVE PLAYER INVENTORY
-                for (SuperItem item : currentGame.player.inventory) {
-                    stmt.executeUpdate(
-                            "INSERT INTO ITEMS (GAME_CODE, TYPE) VALUES ('" + currentGame.gameCode
-                                    + "', '" + item.name + "');");
-                }
+    /**
+     * Completes the saves written since the last call, giving a new game
+     * its code. Must be called from the game thread every tick.
+     */
+    public void update() {
+        Runnable save;
+        while ((save = writtenSaves.poll()) != null) {
+            save.run();
+        }
+    }
 
-                stmt.close();
-                conn.close();
-                GamePanel.logger.log(Level.INFO, "Game saved");
+    /**
+     * Captures the state of the game and saves it in the database in the
+     * background, so the game doesn't stop while it is written. Must be
+     * called from the game thread, between two ticks.
+     * 
+     * @return a future with the code of the saved game, which fails
+     *         if the game couldn't be saved.
+     */
+    public CompletableFuture<Integer> saveGameAsync() {
+        return saveGameAsync(SaveSnapshot.capture(currentGame));
+    }
 
-            } catch (SQLException e) {
-                gamePanel.logger.log(Level.SEVERE, "SQLite connection failed: " + e.getMessage());
+    /**
+     * Saves an already captured state of the game in the background.
+     * Saves are written in the order they are requested, and the
+     * statistics of the game are written after it in the database.
+     * The future is completed in the game thread (see update), where the
+     * game is given its code if it is still the one being played.
+     * 
+     * @param snapshot State of the game to save.
+     * @return a future with the code of the saved game, which fails
+     *         if the game couldn't be saved.
+     */
+    public CompletableFuture<Integer> saveGameAsync(SaveSnapshot snapshot) {
+        SaveBackend target = backend;
+        CompletableFuture<Integer> saved = new CompletableFuture<>();
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                int gameCode = target.write(snapshot);
+                try {
+                    sqliteBackend.writeStatistics(gameCode, snapshot);
+                } catch (IOException e) {
+                    // The game is saved, and the next save writes the totals again
+                    GamePanel.logger.log(Level.WARNING, "Statistics not saved: " + e.getMessage());
+                }
+                return gameCode;
+            } catch (IOException e) {
+                GamePanel.logger.log(Level.SEVERE, "Game not saved: " + e.getMessage());
+                throw new CompletionException(e);
             }
-        } catch (ClassNotFoundException e) {
-            gamePanel.logger.log(Level.SEVERE, "SQLite driver not found: " + e.getMessage());
-        }
+        }, saveThread).whenComplete((gameCode, error) -> writtenSaves.add(() -> {
+            if (error != null) {
+                saved.completeExceptionally(error);
+                return;
+            }
+            // A game started or loaded while it was written isn't given the code
+            if (currentGame.token == snapshot.gameToken) {
+                currentGame.gameCode = gameCode;
+            }
+            saved.complete(gameCode);
+        }));
+        return saved;
     }
 
     /**
@@ -89,81 +176,158 @@ public class GameManager {
      * @param code Code of the game to be loaded.
      */
     public void loadGame(Integer code) {
+        long start = System.nanoTime();
         try {
-            Class.forName("org.sqlite.JDBC");
-            String url = "jdbc:sqlite:src/main/dataBase/DB.db";
-
-            try (Connection conn = DriverManager.getConnection(url)) {
-                Statement stmt = conn.createStatement();
-
-                // LOAD GAME
-                ResultSet rs = stmt.executeQuery("SELECT * FROM GAMES WHERE CODE = '" + code + "';");
-                currentGame.gameCode = rs.getInt("CODE");
-                currentGame.gameName = rs.getString("NAME");
-                currentGame.date = rs.getString("DATE");
-
-                // LOAD PLAYER
-                rs = stmt.executeQuery("SELECT * FROM PLAYER WHERE GAME_CODE = '" + code + "';");
-                currentGame.player.worldX = rs.getInt("POSX");
-                currentGame.player.worldY = rs.getInt("POSY");
-                currentGame.player.health = rs.getInt("HEALTH");
-                currentGame.player.stamina = rs.getInt("STAMINA");
-                // currentGame.player.item = rs.getString("ITEM");
-
-                // LOAD ENTITIES
-                rs = stmt.executeQuery("SELECT * FROM ENTITIES WHERE GAME_CODE = '" + code + "';");
-                while (rs.next()) {
-                    Enemy enemy = new Enemy(gamePanel, -666, -666); // This must be updated
-                    enemy.worldX = rs.getInt("POSX");
-                    enemy.worldY = rs.getInt("POSY");
-                    currentGame.entities.add(enemy);
-                }
+            SaveSnapshot snapshot = backend.read(code);
+            if (snapshot == null && backend != sqliteBackend) {
+                // Games saved before changing the backend are still in the database
+                snapshot = sqliteBackend.read(code);
+            }
+            if (snapshot == null) {
+                GamePanel.logger.log(Level.WARNING, "Game " + code + " not found");
+                return;
+            }
+            apply(snapshot);
+            GamePanel.logger.log(Level.INFO, "Game Loaded (" + snapshot.entities.size() + " entities) in "
+                    + (System.nanoTime() - start) / 1000000 + " ms");
 
-                // LOAD PLAYER INVENTORY
-                rs = stmt.executeQuery("SELECT * FROM ITEMS WHERE GAME_CODE = '" + code + "';");
-                while (rs.next()) {
-                    switch (rs.getString("TYPE")) {
-                        case "Apple":
-                            ITEM_apple apple = new ITEM_apple();
-                            currentGame.player.inventory.add(apple);
-                        case "Bloody Sword":
-                            ITEM_bloodySword bloodySword = new ITEM_bloodySword();
-                            currentGame.player.inventory.add(bloodySword);
-                        case "Bow":
-                            ITEM_bow bow = new ITEM_bow();
-                            currentGame.player.inventory.add(bow);
-                        case "Golden Sword":
-                            ITEM_goldenSword goldenSword = new ITEM_goldenSword();
-                            currentGame.player.inventory.add(goldenSword);
-                        case "Iron Sword":
-                            ITEM_ironSword ironSword = new ITEM_ironSword();
-                            currentGame.player.inventory.add(ironSword);
-                        case "Purple Potion":
-                            ITEM_purplePotion purplePotion = new ITEM_purplePotion();
-                            currentGame.player.inventory.add(purplePotion);
-                        case "Red Potion":
-                            ITEM_redPotion redPotion = new ITEM_redPotion();
-                            currentGame.player.inventory.add(redPotion);
-                        case "Shield":
-                            ITEM_shield shield = new ITEM_shield();
-                            currentGame.player.inventory.add(shield);
-                        case "Wooden Sword":
-                            ITEM_woodenSword woodenSword = new ITEM_woodenSword();
-                            currentGame.player.inventory.add(woodenSword);
-                        default:
-                            break;
-                    }
-                }
+        } catch (IOException e) {
+            GamePanel.logger.log(Level.SEVERE, "Game not loaded: " + e.getMessage());
+        }
+    }
 
-                stmt.close();
-                conn.close();
-                GamePanel.logger.log(Level.INFO, "Game Loaded");
+    /**
+     * Sets the state of the current game to a saved one.
+     * 
+     * @param snapshot Saved state of the game.
+     */
+    private void apply(SaveSnapshot snapshot) {
+
+        // LOAD GAME
+        currentGame.gameCode = snapshot.gameCode;
+        currentGame.token = Game.nextToken();
+        currentGame.gameName = snapshot.gameName;
+        currentGame.date = snapshot.date;
+
+        // LOAD STATISTICS (games saved before them start from zero)
+        currentGame.statistics = new GameStatistics();
+        StatisticsRecord statistics = loadStatistics(snapshot.gameCode);
+        if (statistics != null) {
+            currentGame.statistics.kills = statistics.kills;
+            currentGame.statistics.damageTaken = statistics.damageTaken;
+            currentGame.statistics.itemsPickedUp = statistics.itemsPickedUp;
+            currentGame.statistics.setSecondsPlayed(statistics.secondsPlayed, gamePanel.FPS);
+            currentGame.statistics.distanceWalked = statistics.distanceWalked;
+        }
 
-            } catch (SQLException e) {
-                gamePanel.logger.log(Level.SEVERE, "SQLite connection failed: " + e.getMessage());
+        // LOAD MAP (the player is placed in it, and its world read, before the entities are added)
+        WorldManager worldManager = gamePanel.worldManager;
+        GameMap map = worldManager.get(snapshot.mapId);
+        if (map == null) {
+            GamePanel.logger.log(Level.WARNING, "Unknown Map " + snapshot.mapId + ", Using " + WorldManager.DEFAULT_ID);
+            map = worldManager.get(WorldManager.DEFAULT_ID);
+        }
+        worldManager.enter(map.id, snapshot.playerX / gamePanel.tileSize, snapshot.playerY / gamePanel.tileSize);
+
+        // The enemies of the other maps replace the ones they keep, and the
+        // player always went through the first map, so it keeps the saved ones
+        for (GameMap other : worldManager.getMaps()) {
+            if (other != map && (other.entities != null || other.id.equals(WorldManager.DEFAULT_ID))) {
+                other.entities = new ArrayList<>();
+            }
+        }
+
+        // LOAD PLAYER
+        currentGame.player.worldX = snapshot.playerX;
+        currentGame.player.worldY = snapshot.playerY;
+        currentGame.player.health = snapshot.health;
+        currentGame.player.stamina = snapshot.stamina;
+
+        // LOAD ENTITIES (their sprites are loaded when they get close to the player)
+        currentGame.entities.ensureCapacity(currentGame.entities.size() + snapshot.entities.size());
+        for (SaveSnapshot.EntityRecord entity : snapshot.entities) {
+            GameMap entityMap = entity.mapId.equals(map.id) ? map : worldManager.get(entity.mapId);
+            if (entityMap == null) {
+                GamePanel.logger.log(Level.WARNING, "Enemy in Unknown Map " + entity.mapId + " not loaded");
+                continue;
+            }
+            // Games saved before archetypes have ENEMY as type, which falls back to the default
+            EnemyArchetype archetype = gamePanel.archetypeRegistry.get(entity.type);
+            Enemy enemy = gamePanel.entityManager.restoreEnemy(archetype, entity.x, entity.y);
+            enemy.saveId = entity.saveId;
+            currentGame.nextSaveId = Math.max(currentGame.nextSaveId, entity.saveId + 1);
+            if (entityMap == map) {
+                currentGame.entities.add(enemy);
+            } else {
+                // Added to the world when the player enters its map
+                if (entityMap.entities == null) {
+                    entityMap.entities = new ArrayList<>();
+                }
+                entityMap.entities.add(enemy);
             }
-        } catch (ClassNotFoundException e) {
-            gamePanel.logger.log(Level.SEVERE, "SQLite driver not found: " + e.getMessage());
+        }
+
+        // LOAD PLAYER INVENTORY
+        for (String item : snapshot.items) {
+            switch (item) {
+                case "Apple":
+                    ITEM_apple apple = new ITEM_apple();
+                    currentGame.player.inventory.add(apple);
+                    break;
+                case "Bloody Sword":
+                    ITEM_bloodySword bloodySword = new ITEM_bloodySword();
+                    currentGame.player.inventory.add(bloodySword);
+                    break;
+                case "Bow":
+                    ITEM_bow bow = new ITEM_bow();
+                    currentGame.player.inventory.add(bow);
+                    break;
+                case "Golden Sword":
+                    ITEM_goldenSword goldenSword = new ITEM_goldenSword();
+                    currentGame.player.inventory.add(goldenSword);
+                    break;
+                case "Iron Sword":
+                    ITEM_ironSword ironSword = new ITEM_ironSword();
+                    currentGame.player.inventory.add(ironSword);
+                    break;
+                case "Purple Potion":
+                    ITEM_purplePotion purplePotion = new ITEM_purplePotion();
+                    currentGame.player.inventory.add(purplePotion);
+                    break;
+                case "Red Potion":
+                    ITEM_redPotion redPotion = new ITEM_redPotion();
+                    currentGame.player.inventory.add(redPotion);
+                    break;
+                case "Shield":
+                    ITEM_shield shield = new ITEM_shield();
+                    currentGame.player.inventory.add(shield);
+                    break;
+                case "Wooden Sword":
+                    ITEM_woodenSword woodenSword = new ITEM_woodenSword();
+                    currentGame.player.inventory.add(woodenSword);
+                    break;
+                default:
+                    GamePanel.logger.log(Level.WARNING, "Unknown Item " + item);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns the statistics of a saved game as they were at its last save.
+     * 
+     * @param code Code of the game.
+     * @return the statistics of the game, or null if it has none.
+     */
+    public StatisticsRecord loadStatistics(Integer code) {
+        if (code == null) {
+            return null;
+        }
+        try {
+            return sqliteBackend.readStatistics(code);
+        } catch (IOException e) {
+            GamePanel.logger.log(Level.SEVERE, "Statistics not loaded: " + e.getMessage());
+            return null;
         }
     }
 
@@ -173,25 +337,25 @@ public class GameManager {
      * @param code Code of the game to be deleted.
      */
     public void deleteGame(Integer code) {
-        try {
-            Class.forName("org.sqlite.JDBC");
-            String url = "jdbc:sqlite:src/main/dataBase/DB.db";
-
-            try (Connection conn = DriverManager.getConnection(url)) {
-                Statement stmt = conn.createStatement();
+        synchronized (gamePanel.database) {
+            try {
+                PreparedStatement stmt = gamePanel.database.prepare(DELETE_GAME_SQL);
 
                 // DELETE GAME (ON DELETE CASCADE)
-                stmt.executeUpdate("DELETE FROM GAMES WHERE CODE = '" + code + "';");
+                stmt.setInt(1, code);
+                stmt.executeUpdate();
+                backend.delete(code);
+                if (backend != sqliteBackend) {
+                    sqliteBackend.delete(code);
+                }
 
-                stmt.close();
-                conn.close();
                 GamePanel.logger.log(Level.INFO, "Game deleted");
 
+            } catch (IOException e) {
+                GamePanel.logger.log(Level.SEVERE, "Game not deleted: " + e.getMessage());
             } catch (SQLException e) {
                 gamePanel.logger.log(Level.SEVERE, "SQLite connection failed: " + e.getMessage());
             }
-        } catch (ClassNotFoundException e) {
-            gamePanel.logger.log(Level.SEVERE, "SQLite driver not found: " + e.getMessage());
         }
     }
 
@@ -203,28 +367,19 @@ public class GameManager {
     public HashMap<Integer, String> loadRecentGames() {
 
         HashMap<Integer, String> recentGames = new HashMap<>();
-        try {
-            Class.forName("org.sqlite.JDBC");
-            String url = "jdbc:sqlite:src/main/dataBase/DB.db";
-
-            try (Connection conn = DriverManager.getConnection(url)) {
-                Statement stmt = conn.createStatement();
+        synchronized (gamePanel.database) {
+            try (ResultSet rs = gamePanel.database.prepare(RECENT_GAMES_SQL).executeQuery()) {
 
                 // LOAD RECENT GAMES
-                ResultSet rs = stmt.executeQuery("SELECT * FROM GAMES ORDER BY DATE DESC LIMIT 5;");
                 while (rs.next()) {
                     recentGames.put(rs.getInt("CODE"), rs.getString("NAME"));
                 }
 
-                stmt.close();
-                conn.close();
                 GamePanel.logger.log(Level.INFO, "Recent Games Loaded");
 
             } catch (SQLException e) {
                 gamePanel.logger.log(Level.SEVERE, "SQLite connection failed: " + e.getMessage());
             }
-        } catch (ClassNotFoundException e) {
-            gamePanel.logger.log(Level.SEVERE, "SQLite driver not found: " + e.getMessage());
         }
         return recentGames;
     }
@@ -236,63 +391,113 @@ public class GameManager {
      */
     public Integer[] loadRecentGameCodes() {
         Integer[] recentGameCodes = new Integer[5];
-        try {
-            Class.forName("org.sqlite.JDBC");
-            String url = "jdbc:sqlite:src/main/dataBase/DB.db";
-
-            try (Connection conn = DriverManager.getConnection(url)) {
-                Statement stmt = conn.createStatement();
+        synchronized (gamePanel.database) {
+            try (ResultSet rs = gamePanel.database.prepare(RECENT_GAMES_SQL).executeQuery()) {
 
                 // LOAD RECENT GAMES
-                ResultSet rs = stmt.executeQuery("SELECT * FROM GAMES ORDER BY DATE DESC LIMIT 5;");
                 int i = 0;
                 while (rs.next()) {
                     recentGameCodes[i] = rs.getInt("CODE");
                     i++;
                 }
 
-                stmt.close();
-                conn.close();
                 GamePanel.logger.log(Level.INFO, "Recent Games Codes Loaded");
 
             } catch (SQLException e) {
                 gamePanel.logger.log(Level.SEVERE, "SQLite connection failed: " + e.getMessage());
             }
-        } catch (ClassNotFoundException e) {
-            gamePanel.logger.log(Level.SEVERE, "SQLite driver not found: " + e.getMessage());
         }
         return recentGameCodes;
     }
 
-    public ArrayList<Game> loadGames() {
-        ArrayList<Game> games = new ArrayList<>();
-        try {
-            Class.forName("org.sqlite.JDBC");
-            String url = "jdbc:sqlite:src/main/dataBase/DB.db";
+    /**
+     * Returns the amount of saved games.
+     * 
+     * @return the amount of games, 0 if they couldn't be counted.
+     */
+    public int countGames() {
+        synchronized (gamePanel.database) {
+            try (ResultSet rs = gamePanel.database.prepare(COUNT_GAMES_SQL).executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            } catch (SQLException e) {
+                GamePanel.logger.log(Level.SEVERE, "SQLite connection failed: " + e.getMessage());
+                return 0;
+            }
+        }
+    }
 
-            try (Connection conn = DriverManager.getConnection(url)) {
-                Statement stmt = conn.createStatement();
+    /**
+     * Returns a page of the saved games ordered by code, starting after
+     * a given code, so the database goes straight to it through the key.
+     * 
+     * @param gameCode Code after which the page starts.
+     * @param limit    Maximum amount of games of the page.
+     * @return the games of the page.
+     */
+    public ArrayList<GameRecord> loadGamesAfter(int gameCode, int limit) {
+        return loadGamesPage(GAMES_AFTER_SQL, gameCode, limit, false);
+    }
 
-                // LOAD GAMES
-                ResultSet rs = stmt.executeQuery("SELECT * FROM GAMES;");
-                while (rs.next()) {
-                    Game game = new Game(gamePanel);
-                    game.gameCode = rs.getInt("CODE");
-                    game.gameName = rs.getString("NAME");
-                    game.date = rs.getString("DATE");
-                    games.add(game);
-                }
+    /**
+     * Returns a page of the saved games ordered by code, ending before
+     * a given code.
+     * 
+     * @param gameCode Code before which the page ends.
+     * @param limit    Maximum amount of games of the page.
+     * @return the games of the page, in ascending order.
+     */
+    public ArrayList<GameRecord> loadGamesBefore(int gameCode, int limit) {
+        return loadGamesPage(GAMES_BEFORE_SQL, gameCode, limit, true);
+    }
 
-                stmt.close();
-                conn.close();
-                GamePanel.logger.log(Level.INFO, "Games Loaded");
+    /**
+     * Returns a page of the saved games ordered by code, starting at a
+     * given position. Slower than the pages by code for far positions.
+     * 
+     * @param offset Position of the first game of the page.
+     * @param limit  Maximum amount of games of the page.
+     * @return the games of the page.
+     */
+    public ArrayList<GameRecord> loadGamesAt(int offset, int limit) {
+        ArrayList<GameRecord> games = new ArrayList<>();
+        synchronized (gamePanel.database) {
+            try {
+                PreparedStatement stmt = gamePanel.database.prepare(GAMES_AT_SQL);
+                stmt.setInt(1, limit);
+                stmt.setInt(2, offset);
+                readGames(stmt, games);
+            } catch (SQLException e) {
+                GamePanel.logger.log(Level.SEVERE, "SQLite connection failed: " + e.getMessage());
+            }
+        }
+        return games;
+    }
 
+    // Helper method to read a page of games by code
+    private ArrayList<GameRecord> loadGamesPage(String sql, int gameCode, int limit, boolean descending) {
+        ArrayList<GameRecord> games = new ArrayList<>();
+        synchronized (gamePanel.database) {
+            try {
+                PreparedStatement stmt = gamePanel.database.prepare(sql);
+                stmt.setInt(1, gameCode);
+                stmt.setInt(2, limit);
+                readGames(stmt, games);
             } catch (SQLException e) {
                 gamePanel.logger.log(Level.SEVERE, "SQLite connection failed: " + e.getMessage());
             }
-        } catch (ClassNotFoundException e) {
-            gamePanel.logger.log(Level.SEVERE, "SQLite driver not found: " + e.getMessage());
+        }
+        if (descending) {
+            Collections.reverse(games);
         }
         return games;
     }
+
+    // Helper method to read the rows of a query of games
+    private void readGames(PreparedStatement stmt, ArrayList<GameRecord> games) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                games.add(new GameRecord(rs.getInt(1), rs.getString(2), rs.getString(3)));
+            }
+        }
+    }
 }
@@ -6,12 +6,16 @@ import main.assets.ASSET_Chest;
 import main.assets.AssetSetter;
 import main.assets.SuperAsset;
 import main.collisions.CollisionChecker;
+import main.entities.ArchetypeRegistry;
 import main.entities.EntityManager;
+import main.entities.LineOfSight;
 import main.entities.PathFinder;
 import main.entities.Player;
+import main.entities.SpriteRegistry;
 import main.items.ItemSetter;
 import main.items.SuperItem;
 import main.tiles.TileManager;
+import main.tiles.WorldManager;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
@@ -19,6 +23,7 @@ import java.awt.Graphics2D;
 import java.awt.event.KeyEvent;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.sql.SQLException;
 import java.util.Properties;
 import java.util.logging.*;
 
@@ -45,11 +50,11 @@ public class GamePanel extends JPanel implements Runnable {
 	public final int screenWidth = tileSize * maxScreenCol; // 1024 pixels
 	public final int screenHeight = tileSize * maxScreenRow; // 768 pixels
 
-	// WORLD SETTINGS
-	public final int maxWorldCol = 101;
-	public final int maxWorldRow = 91;
-	public final int worldHeight = tileSize * maxWorldRow;
-	public final int worldWidth = tileSize * maxWorldCol;
+	// WORLD SETTINGS (size of the current map, see setWorldSize)
+	public int maxWorldCol = 101;
+	public int maxWorldRow = 91;
+	public int worldHeight = tileSize * maxWorldRow;
+	public int worldWidth = tileSize * maxWorldCol;
 
 	// NAME GENERATOR
 	public NameGenerator nameGenerator = new NameGenerator();
@@ -75,21 +80,30 @@ public class GamePanel extends JPanel implements Runnable {
 	// SOUND
 	Sound sound = new Sound();
 
+	// RESOURCES
+	public ResourceLoader resourceLoader = new ResourceLoader();
+
 	// OTHER CLASSES
 	public EventHandler eventHandler = new EventHandler(this);
 	public Thread gameThread;
 	public TileManager tileManager = new TileManager(this);
+	public WorldManager worldManager = new WorldManager(this);
 	public KeyHandler keyHandler = new KeyHandler();
 	public FontManager fontManager = new FontManager();
 	public CollisionChecker collisionChecker = new CollisionChecker(this);
 	public PathFinder pathFinder = new PathFinder(this);
+	public LineOfSight lineOfSight = new LineOfSight(this);
 	public Hud hud = new Hud(this);
+	public SpriteRegistry spriteRegistry = new SpriteRegistry(tileSize);
+	public ArchetypeRegistry archetypeRegistry = new ArchetypeRegistry();
 	public Player player = Player.getInstance(this, keyHandler);
 	public EntityManager entityManager = new EntityManager(this, player);
 
 	// GAME MANAGER
+	public Database database = new Database(Database.URL);
 	public Game currentGame = new Game(this);
 	public GameManager gameManager = new GameManager(this, currentGame);
+	public AutoSave autoSave = new AutoSave(this);
 
 	// STATE SCREENS
 	public TitleScreen titleScreen = new TitleScreen(this);
@@ -125,9 +139,57 @@ public class GamePanel extends JPanel implements Runnable {
 			logger.log(Level.SEVERE, "Logger Handler Failed", e);
 		}
 
+		try {
+			Properties properties = new Properties();
+			properties.load(new FileInputStream("game_config.properties"));
+
+			String interval = properties.getProperty("autosave_interval");
+			if (interval != null) {
+				autoSave.setInterval(Integer.parseInt(interval.trim()));
+			}
+			gameManager.setBackend(properties.getProperty("save_backend", SqliteSaveBackend.NAME).trim(),
+					Boolean.parseBoolean(properties.getProperty("save_compression", "true").trim()));
+
+		} catch (IOException | NumberFormatException e) {
+			logger.log(Level.WARNING, "Game Config Failed, Using Defaults", e);
+		}
+
+		addResources();
+
+		// The database is closed when the program exits, whatever the way
+		Runtime.getRuntime().addShutdownHook(new Thread(database::close, "Database Shutdown"));
+
 		logger.log(Level.INFO, "Game Started");
 	}
 
+	/**
+	 * Adds the resources of the game to the resource loader. The
+	 * managers are created empty, so the window shows up at once, and
+	 * their content is loaded in the background by setUpGame.
+	 */
+	private void addResources() {
+		resourceLoader
+				.add("tiles", tileManager::loadTiles)
+				.add("world", worldManager::loadCurrent)
+				.add("navigation", () -> {
+					pathFinder.loadMap();
+					lineOfSight.loadMap();
+				}, "world")
+				.add("hud", hud::loadImages)
+				.add("player", player::getPlayerSprite)
+				.add("enemies", () -> entityManager.loadEnemies(worldManager.getCurrent().entitiesPath), "navigation")
+				.add("assets", assetSetter::setAssets)
+				.add("items", itemSetter::setItem)
+				.add("database", () -> {
+					// Opening the database migrates its schema, so it isn't done by the title screen
+					try {
+						database.getConnection();
+					} catch (SQLException e) {
+						throw new IllegalStateException("Database Not Opened: " + e.getMessage(), e);
+					}
+				});
+	}
+
 	/**
 	 * Sets the level of a logger based on a string
 	 * representing the level.
@@ -195,15 +257,15 @@ public class GamePanel extends JPanel implements Runnable {
 	}
 
 	/**
-	 * Initializes main.assets, main.items and the music of the game.
+	 * Starts loading the resources of the game (map, sprites,
+	 * main.assets, main.items...) in the background, and the music.
+	 * The title screen doesn't let the game start until they are loaded.
 	 * 
 	 * @author marcos.martinez@opendeusto.es
 	 */
 	public void setUpGame() {
-		// Sets main.assets
-		assetSetter.setAssets();
-		// Sets main.items
-		itemSetter.setItem();
+		// Loads the map, main.entities, main.assets and main.items
+		resourceLoader.start();
 
 		// Plays music
 		if (titleState) {
@@ -250,6 +312,9 @@ public class GamePanel extends JPanel implements Runnable {
 					pauseState = true;
 				}
 
+				// SAVES written since the last frame
+				gameManager.update();
+
 				// ASSETS & DIALOGUE SCREEN
 				if (keyHandler.isKeyToggled(KeyEvent.VK_ENTER)) {
 					if (!player.playerReading && !inventoryState) {
@@ -304,6 +369,7 @@ public class GamePanel extends JPanel implements Runnable {
 					// etc.
 					update();
 					hud.update();
+					autoSave.update();
 				}
 
 				if (!newGame) {
@@ -327,8 +393,22 @@ public class GamePanel extends JPanel implements Runnable {
 		}
 	}
 
+	/**
+	 * Changes the size of the world, when the player enters a map.
+	 * 
+	 * @param cols Width of the world in tiles.
+	 * @param rows Height of the world in tiles.
+	 */
+	public void setWorldSize(int cols, int rows) {
+		maxWorldCol = cols;
+		maxWorldRow = rows;
+		worldWidth = tileSize * cols;
+		worldHeight = tileSize * rows;
+	}
+
 	/** Updates the state of the different managers. */
 	public void update() {
+		worldManager.update();
 		entityManager.update();
 	}
 
@@ -0,0 +1,18 @@
+package main;
+
+/**
+ * Row of the list of saved games. It only has what the list shows,
+ * so long listings don't build a whole Game for every row.
+ */
+public final class GameRecord {
+
+    public final int gameCode;
+    public final String gameName;
+    public final String date;
+
+    public GameRecord(int gameCode, String gameName, String date) {
+        this.gameCode = gameCode;
+        this.gameName = gameName;
+        this.date = date;
+    }
+}
@@ -0,0 +1,87 @@
+package main;
+
+import main.items.SuperItem;
+
+/**
+ * Counters of what happens while a game is played. They are plain fields
+ * increased by the entities as things happen, so counting costs nothing
+ * in the game loop, and their totals are written with every save into
+ * the STATISTICS table, where the statistics screen reads them.
+ */
+public class GameStatistics {
+
+    public int kills = 0;
+    public int damageTaken = 0;
+    public int itemsPickedUp = 0;
+    public long ticksPlayed = 0;
+    public long distanceWalked = 0; // Pixels
+
+    /**
+     * Counts the kill of an enemy left without health by a hit. Hits keep
+     * landing on a dead enemy until it is removed, so only the first counts.
+     *
+     * @param dead True if the enemy was already dead before the hit.
+     */
+    public void countKill(boolean dead) {
+        if (!dead) {
+            kills++;
+        }
+    }
+
+    /**
+     * Counts the damage of a hit on the player, unless the player is still
+     * invulnerable after a previous one, so the hit does nothing.
+     *
+     * @param damage       Damage of the hit.
+     * @param invulnerable True if the player is invulnerable.
+     */
+    public void countDamage(int damage, boolean invulnerable) {
+        if (!invulnerable) {
+            damageTaken += damage;
+        }
+    }
+
+    /**
+     * Counts an item the player tried to take from a slot (of the world
+     * or of a chest) if it left it, either removed or swapped for the old
+     * sword of the player. Items the player can't take stay in their slot.
+     *
+     * @param item Item the player tried to take.
+     * @param left Item in the slot afterwards, null if it is empty.
+     */
+    public void countPickUp(SuperItem item, SuperItem left) {
+        if (item != left) {
+            itemsPickedUp++;
+        }
+    }
+
+    /** Returns a copy of the counters, i.e. for a save. */
+    public GameStatistics copy() {
+        GameStatistics copy = new GameStatistics();
+        copy.kills = kills;
+        copy.damageTaken = damageTaken;
+        copy.itemsPickedUp = itemsPickedUp;
+        copy.ticksPlayed = ticksPlayed;
+        copy.distanceWalked = distanceWalked;
+        return copy;
+    }
+
+    /**
+     * Returns the time played in seconds.
+     *
+     * @param fps Ticks per second of the game.
+     */
+    public long getSecondsPlayed(int fps) {
+        return ticksPlayed / fps;
+    }
+
+    /**
+     * Sets the time played, i.e. when a game is loaded.
+     *
+     * @param seconds Seconds played.
+     * @param fps     Ticks per second of the game.
+     */
+    public void setSecondsPlayed(long seconds, int fps) {
+        ticksPlayed = seconds * fps;
+    }
+}
@@ -0,0 +1,227 @@
+package main;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Table of the saved games that only reads the pages of rows being shown.
+ * Pages are read in a background thread, and the cells of a page that
+ * isn't read yet are empty until it arrives. A page is read after the
+ * last code of the page before it (or before the first code of the page
+ * after it), so the database doesn't skip rows to find it, and only
+ * falls back to an offset when the table jumps to a page far from the
+ * ones already read. The last pages read are kept, and the next page is
+ * read in advance, so scrolling down doesn't wait.
+ * Must be used from the event dispatch thread, like any table model.
+ */
+@SuppressWarnings("serial")
+public class GamesTableModel extends AbstractTableModel {
+
+    public static final int PAGE_SIZE = 50; // Rows read at once
+    public static final int MAX_PAGES = 8; // Pages kept in memory
+
+    private static final String[] COLUMN_NAMES = { "CODE", "NAME", "DATE" };
+
+    /**
+     * Where the pages of games are read from, ordered by code.
+     */
+    public interface Source {
+
+        /** Returns the amount of saved games. */
+        int count();
+
+        /** Returns the first games with a code greater than a given one. */
+        List<GameRecord> after(int gameCode, int limit);
+
+        /** Returns the last games with a code smaller than a given one, in ascending order. */
+        List<GameRecord> before(int gameCode, int limit);
+
+        /** Returns the games from a given position. */
+        List<GameRecord> at(int offset, int limit);
+    }
+
+    private final Source source;
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Games Loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private int rowCount = 0;
+    private int generation = 0; // Changed by reload, so pages of an older read are dropped
+    private final LinkedHashMap<Integer, GameRecord[]> pages = new LinkedHashMap<Integer, GameRecord[]>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, GameRecord[]> eldest) {
+            return size() > MAX_PAGES;
+        }
+    };
+    private final HashSet<Integer> loading = new HashSet<>();
+
+    // Codes at the edges of the pages already read, kept when the pages are dropped
+    private final HashMap<Integer, Integer> firstCodes = new HashMap<>();
+    private final HashMap<Integer, Integer> lastCodes = new HashMap<>();
+
+    /**
+     * Creates an empty GamesTableModel. Its rows are counted by reload.
+     *
+     * @param source Where the games are read from.
+     */
+    public GamesTableModel(Source source) {
+        this.source = source;
+    }
+
+    /**
+     * Forgets the rows read and counts the games again in the
+     * background, i.e. every time the table is shown.
+     */
+    public void reload() {
+        int reload = ++generation;
+        pages.clear();
+        loading.clear();
+        firstCodes.clear();
+        lastCodes.clear();
+
+        loader.execute(() -> {
+            int count = source.count();
+            SwingUtilities.invokeLater(() -> {
+                if (reload == generation) {
+                    rowCount = count;
+                    fireTableDataChanged();
+                }
+            });
+        });
+    }
+
+    /**
+     * Returns the game of a row, or null if its page isn't read yet
+     * (the page is then read in the background).
+     *
+     * @param rowIndex Row of the table.
+     */
+    public GameRecord getRecord(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= rowCount) {
+            return null;
+        }
+        int page = rowIndex / PAGE_SIZE;
+        GameRecord[] records = pages.get(page);
+        if (records == null) {
+            request(page, false);
+            return null;
+        }
+        int index = rowIndex % PAGE_SIZE;
+        return index < records.length ? records[index] : null;
+    }
+
+    /** Returns true if a page is in memory. */
+    public boolean isCached(int page) {
+        return pages.containsKey(page);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int columnIndex) {
+        return COLUMN_NAMES[columnIndex];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return columnIndex == 0 ? Integer.class : String.class;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        GameRecord record = getRecord(rowIndex);
+        if (record == null) {
+            return null;
+        }
+        switch (columnIndex) {
+            case 0:
+                return record.gameCode;
+            case 1:
+                return record.gameName;
+            case 2:
+                return record.date;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Reads a page in the background, unless it is already being read.
+     *
+     * @param page     Index of the page.
+     * @param prefetch True if the page isn't shown yet, so reading it
+     *                 doesn't read the next one.
+     */
+    private void request(int page, boolean prefetch) {
+        if (page * PAGE_SIZE >= rowCount || pages.containsKey(page) || !loading.add(page)) {
+            return;
+        }
+
+        int reload = generation;
+        Integer previous = page == 0 ? Integer.valueOf(Integer.MIN_VALUE) : lastCodes.get(page - 1);
+        Integer next = firstCodes.get(page + 1);
+
+        loader.execute(() -> {
+            List<GameRecord> records;
+            if (previous != null) {
+                records = source.after(previous, PAGE_SIZE);
+            } else if (next != null) {
+                records = source.before(next, PAGE_SIZE);
+            } else {
+                records = source.at(page * PAGE_SIZE, PAGE_SIZE);
+            }
+            SwingUtilities.invokeLater(() -> loaded(reload, page, records, prefetch));
+        });
+    }
+
+    /**
+     * Keeps a page read in the background and reads the one after it.
+     *
+     * @param reload   Generation the page was read in.
+     * @param page     Index of the page.
+     * @param records  Games of the page.
+     * @param prefetch True if the page was read in advance.
+     */
+    private void loaded(int reload, int page, List<GameRecord> records, boolean prefetch) {
+        if (reload != generation) {
+            return;
+        }
+        loading.remove(page);
+        pages.put(page, records.toArray(new GameRecord[0]));
+
+        // Games deleted since they were counted can leave a page empty, which is kept until the next reload
+        if (records.isEmpty()) {
+            GamePanel.logger.log(Level.FINE, "Page " + page + " of games is empty");
+            return;
+        }
+        firstCodes.put(page, records.get(0).gameCode);
+        lastCodes.put(page, records.get(records.size() - 1).gameCode);
+
+        int first = page * PAGE_SIZE;
+        fireTableRowsUpdated(first, Math.min(first + PAGE_SIZE, rowCount) - 1);
+
+        // The next page is read before it is scrolled to
+        if (!prefetch) {
+            request(page + 1, true);
+        }
+    }
+}
@@ -35,11 +35,20 @@ public class Hud implements Drawable {
     int progressBarX = 50;
     int progressBarY = 100;
 
+    // Message (i.e. the result of a save), set from any thread
+    public final int MESSAGE_FRAMES = 120; // Frames a message is shown
+    private volatile String message;
+    private volatile int messageFrames = 0;
+
     /** Creates a HUD component. */
     public Hud(GamePanel gamePanel) {
+        this.gamePanel = gamePanel;
+    }
+
+    /** Loads the heart images of the HUD. */
+    public void loadImages() {
 
         // Load Heart Images
-        this.gamePanel = gamePanel;
         try {
             BufferedImage IO1 = ImageIO.read(new File("src/main/res/hud/heart border sh.png"));
             this.fullHeart = IO1.getScaledInstance(heartWidth, heartHeight, Image.SCALE_SMOOTH);
@@ -51,10 +60,23 @@ public class Hud implements Drawable {
 
     }
 
+    /**
+     * Shows a message in the HUD for a while.
+     * 
+     * @param message Message to show.
+     */
+    public void showMessage(String message) {
+        this.message = message;
+        this.messageFrames = MESSAGE_FRAMES;
+    }
+
     /** Updates the HUD based on players stamina and health */
     public void update() {
         health = gamePanel.player.health;
         stamina = gamePanel.player.stamina;
+        if (messageFrames > 0) {
+            messageFrames--;
+        }
     }
 
     /**
@@ -98,6 +120,14 @@ public class Hud implements Drawable {
             g2.drawRoundRect(x, y, (progressBarWidth / 5) * remaining / 20, progressBarHeight, 10, 10);
         }
 
+        // Draw Message
+        String text = message;
+        if (messageFrames > 0 && text != null) {
+            g2.setFont(FontManager.optionFont);
+            g2.setColor(FontManager.fontColor);
+            g2.drawString(text, progressBarX, gamePanel.screenHeight - 40);
+        }
+
         // TODO: Draw weapon icon
     }
 
@@ -41,7 +41,10 @@ public class PauseScreen implements Drawable {
             } catch (InterruptedException e) {
                 gamePanel.logger.log(Level.SEVERE, "Thread.sleep() Failed", e);
             }
-            gamePanel.gameManager.saveGame();
+            // The game keeps running while the save is written
+            gamePanel.hud.showMessage("SAVING...");
+            gamePanel.gameManager.saveGameAsync().whenComplete((gameCode, error) ->
+                    gamePanel.hud.showMessage(error == null ? "GAME SAVED" : "SAVE FAILED"));
             gamePanel.pauseState = false;
         }
 
@@ -0,0 +1,160 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/** Loads the resources of the game in the background. Every resource is
+ * a named task with the resources it depends on, and it runs in a thread
+ * pool as soon as all of them are loaded, so independent resources (i.e.
+ * the tile sheet and the sprites) are loaded in parallel while the title
+ * screen is already being drawn.
+ * A resource that fails is logged and counted as loaded, as the loading
+ * code of each resource already falls back to a default when it fails.*/
+public class ResourceLoader {
+
+    private final int threads;
+    private final LinkedHashMap<String, Resource> resources = new LinkedHashMap<>();
+    private final AtomicInteger loaded = new AtomicInteger();
+    private volatile String current = "";
+
+    private ExecutorService pool;
+    private CompletableFuture<Void> all;
+    private long startTime;
+
+    /** Creates a ResourceLoader with a thread per processor.*/
+    public ResourceLoader() {
+        this(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /** Creates a ResourceLoader.
+     * @param threads Amount of resources loaded at the same time.*/
+    public ResourceLoader(int threads) {
+        this.threads = threads;
+    }
+
+    /** Adds a resource to load. Its dependencies must have been added
+     * before, so the graph can never have cycles.
+     * @param name Name of the resource.
+     * @param task Code loading the resource.
+     * @param dependencies Names of the resources that must be loaded first.
+     * @return this loader, to chain calls.
+     * @throws IllegalArgumentException if the name is repeated or a dependency is unknown.
+     * @throws IllegalStateException if the loader was already started.*/
+    public synchronized ResourceLoader add(String name, Runnable task, String... dependencies) {
+        if(pool != null) {
+            throw new IllegalStateException("Resource Loader Already Started");
+        }
+        if(resources.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicated Resource: " + name);
+        }
+        for(String dependency : dependencies) {
+            if(!resources.containsKey(dependency)) {
+                throw new IllegalArgumentException("Unknown Dependency " + dependency + " of " + name);
+            }
+        }
+        resources.put(name, new Resource(name, task, dependencies));
+        return this;
+    }
+
+    /** Starts loading the resources in the background.
+     * Does nothing if the loader was already started.*/
+    public synchronized void start() {
+        if(pool != null) {
+            return;
+        }
+        startTime = System.nanoTime();
+        pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "Resource Loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Resources are in insertion order, so dependencies always have a future
+        ArrayList<CompletableFuture<Void>> futures = new ArrayList<>();
+        for(Resource resource : resources.values()) {
+            CompletableFuture<?>[] dependencies = new CompletableFuture<?>[resource.dependencies.length];
+            for(int i = 0; i < dependencies.length; i++) {
+                dependencies[i] = resources.get(resource.dependencies[i]).future;
+            }
+            resource.future = CompletableFuture.allOf(dependencies).thenRunAsync(() -> load(resource), pool);
+            futures.add(resource.future);
+        }
+
+        all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+        all.whenComplete((result, error) -> {
+            pool.shutdown();
+            GamePanel.logger.log(Level.INFO, "Resources Loaded in " + (System.nanoTime() - startTime) / 1000000 + " ms");
+        });
+    }
+
+    /** Waits until every resource is loaded, starting the loader if needed.*/
+    public void await() {
+        start();
+        all.join();
+    }
+
+    /** Returns true if every resource is loaded.*/
+    public boolean isDone() {
+        CompletableFuture<Void> future;
+        synchronized(this) {
+            future = all;
+        }
+        return future != null && future.isDone();
+    }
+
+    /** Returns true if a resource is loaded.
+     * @param name Name of the resource.*/
+    public synchronized boolean isLoaded(String name) {
+        Resource resource = resources.get(name);
+        return resource != null && resource.future != null && resource.future.isDone();
+    }
+
+    /** Returns the fraction of resources already loaded, between 0 and 1.*/
+    public synchronized float getProgress() {
+        if(resources.isEmpty()) {
+            return pool == null ? 0 : 1;
+        }
+        return (float) loaded.get() / resources.size();
+    }
+
+    /** Returns the name of the last resource that started loading.*/
+    public String getCurrent() {
+        return current;
+    }
+
+    /** Runs the task of a resource, logging it if it fails.
+     * @param resource Resource to load.*/
+    private void load(Resource resource) {
+        current = resource.name;
+        long start = System.nanoTime();
+        try {
+            resource.task.run();
+            GamePanel.logger.log(Level.FINE, "Resource Loaded: " + resource.name + " ("
+                    + (System.nanoTime() - start) / 1000000 + " ms)");
+        } catch(RuntimeException e) {
+            GamePanel.logger.log(Level.SEVERE, "Failed Loading Resource " + resource.name, e);
+        } finally {
+            loaded.incrementAndGet();
+        }
+    }
+
+    /** Resource of the dependency graph.*/
+    private static class Resource {
+
+        final String name;
+        final Runnable task;
+        final String[] dependencies;
+        CompletableFuture<Void> future;
+
+        Resource(String name, Runnable task, String[] dependencies) {
+            this.name = name;
+            this.task = task;
+            this.dependencies = dependencies;
+        }
+    }
+}
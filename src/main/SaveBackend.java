@@ -0,0 +1,41 @@
+package main;
+
+import java.io.IOException;
+
+/**
+ * Storage of the saved games. The games themselves (code, name and date)
+ * are always listed in the GAMES table of the database, which is what the
+ * title screen and the statistics read, and a backend keeps the player,
+ * the entities and the inventory of each one.
+ */
+public interface SaveBackend {
+
+    /** Returns the name of the backend, as written in the game config. */
+    String getName();
+
+    /**
+     * Saves the state of a game. Called from the save thread.
+     *
+     * @param snapshot State of the game to save.
+     * @return the code of the saved game.
+     * @throws IOException if the game couldn't be saved.
+     */
+    int write(SaveSnapshot snapshot) throws IOException;
+
+    /**
+     * Reads the saved state of a game.
+     *
+     * @param code Code of the game.
+     * @return the state of the game, or null if it isn't in this backend.
+     * @throws IOException if the game couldn't be read.
+     */
+    SaveSnapshot read(int code) throws IOException;
+
+    /**
+     * Deletes the saved state of a game.
+     *
+     * @param code Code of the game.
+     * @throws IOException if the game couldn't be deleted.
+     */
+    void delete(int code) throws IOException;
+}
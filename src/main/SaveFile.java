@@ -0,0 +1,348 @@
+package main;
+
+import main.tiles.WorldManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary format of a saved game, used by the BinarySaveBackend. A save
+ * is a small header followed by a payload with the game, the player, a
+ * table with the names of the entity types and items, the entities
+ * packed as fixed size records and the inventory as indexes of that
+ * table. The payload can be compressed and is checked with a CRC32, so
+ * a damaged save is detected instead of loaded.
+ * <p>
+ * Header (big endian ints): magic, version, flags (1 if the payload is
+ * compressed), payload size, stored size and CRC32 of the stored bytes.
+ * <p>
+ * Payload: game code (-1 if it has none), name, date and map; player x,
+ * y, health and stamina as ints; amount of names as a short followed by
+ * the names; amount of entities as an int followed by their save id, map
+ * and type (short indexes), x and y; amount of items as a short followed
+ * by their indexes. Names are a short length and their UTF-8 bytes.
+ * Version 1 saves, from before maps were saved, have no maps and are
+ * read as saves in the default map.
+ */
+public class SaveFile {
+
+    public static final int MAGIC = 0x47534156; // "GSAV"
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 6 * Integer.BYTES;
+    public static final int ENTITY_SIZE = 3 * Integer.BYTES + 2 * Short.BYTES;
+    private static final int ENTITY_SIZE_V1 = 3 * Integer.BYTES + Short.BYTES;
+
+    public static final int FLAG_COMPRESSED = 1;
+
+    private SaveFile() {
+    }
+
+    /**
+     * Writes a snapshot in a file. The save is written in a temporary file
+     * that then replaces the old one, so a failed save never leaves a half
+     * written file behind.
+     *
+     * @param snapshot State of the game to write.
+     * @param path     File to write.
+     * @param compress True to compress the payload.
+     * @return the size of the file in bytes.
+     * @throws IOException if the file can't be written.
+     */
+    public static int write(SaveSnapshot snapshot, Path path, boolean compress) throws IOException {
+
+        ByteBuffer payload = encode(snapshot);
+        ByteBuffer stored = compress ? deflate(payload) : payload;
+
+        CRC32 crc = new CRC32();
+        crc.update(stored.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocateDirect(HEADER_SIZE);
+        header.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(compress ? FLAG_COMPRESSED : 0)
+                .putInt(payload.limit())
+                .putInt(stored.limit())
+                .putInt((int) crc.getValue());
+        header.flip();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = { header, stored };
+            while (stored.hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(false);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return HEADER_SIZE + stored.limit();
+    }
+
+    /**
+     * Reads a snapshot from a file.
+     *
+     * @param path File to read.
+     * @return the saved state of the game.
+     * @throws IOException if the file can't be read or isn't a valid save.
+     */
+    public static SaveSnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            ByteBuffer header = readFully(channel, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a save file");
+            }
+            int version = header.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported save version " + version);
+            }
+            int flags = header.getInt();
+            int payloadSize = header.getInt();
+            int storedSize = header.getInt();
+            int checksum = header.getInt();
+            if (payloadSize < 0 || storedSize < 0 || storedSize > channel.size() - HEADER_SIZE) {
+                throw new IOException("Invalid save size " + storedSize);
+            }
+
+            ByteBuffer stored = readFully(channel, storedSize);
+            CRC32 crc = new CRC32();
+            crc.update(stored.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Corrupted save file");
+            }
+
+            ByteBuffer payload = (flags & FLAG_COMPRESSED) != 0 ? inflate(stored, payloadSize) : stored;
+            try {
+                return decode(payload, version);
+            } catch (RuntimeException e) {
+                throw new IOException("Invalid save file", e);
+            }
+        }
+    }
+
+    /**
+     * Packs a snapshot in a buffer.
+     *
+     * @param snapshot State of the game to pack.
+     * @return a direct buffer with the payload, ready to be read.
+     * @throws IOException if the snapshot doesn't fit in the format.
+     */
+    private static ByteBuffer encode(SaveSnapshot snapshot) throws IOException {
+
+        // Every type and item name is written once and referenced by its index
+        LinkedHashMap<String, Integer> names = new LinkedHashMap<>();
+        for (SaveSnapshot.EntityRecord entity : snapshot.entities) {
+            names.putIfAbsent(entity.mapId, names.size());
+            names.putIfAbsent(entity.type, names.size());
+        }
+        for (String item : snapshot.items) {
+            names.putIfAbsent(item, names.size());
+        }
+        if (names.size() > Short.MAX_VALUE || snapshot.items.size() > Short.MAX_VALUE) {
+            throw new IOException("Too many names to save");
+        }
+
+        byte[] gameName = encodeName(snapshot.gameName);
+        byte[] date = encodeName(snapshot.date);
+        byte[] mapId = encodeName(snapshot.mapId);
+        ArrayList<byte[]> encodedNames = new ArrayList<>(names.size());
+        int size = Integer.BYTES + 3 * Short.BYTES + gameName.length + date.length + mapId.length + 4 * Integer.BYTES
+                + Short.BYTES + Integer.BYTES + snapshot.entities.size() * ENTITY_SIZE
+                + Short.BYTES + snapshot.items.size() * Short.BYTES;
+        for (String name : names.keySet()) {
+            byte[] bytes = encodeName(name);
+            encodedNames.add(bytes);
+            size += Short.BYTES + bytes.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+
+        // Game
+        buffer.putInt(snapshot.gameCode != null ? snapshot.gameCode : -1);
+        putName(buffer, gameName);
+        putName(buffer, date);
+        putName(buffer, mapId);
+
+        // Player
+        buffer.putInt(snapshot.playerX)
+                .putInt(snapshot.playerY)
+                .putInt(snapshot.health)
+                .putInt(snapshot.stamina);
+
+        // Names
+        buffer.putShort((short) encodedNames.size());
+        for (byte[] name : encodedNames) {
+            putName(buffer, name);
+        }
+
+        // Entities
+        buffer.putInt(snapshot.entities.size());
+        for (SaveSnapshot.EntityRecord entity : snapshot.entities) {
+            buffer.putInt(entity.saveId)
+                    .putShort(names.get(entity.mapId).shortValue())
+                    .putShort(names.get(entity.type).shortValue())
+                    .putInt(entity.x)
+                    .putInt(entity.y);
+        }
+
+        // Inventory
+        buffer.putShort((short) snapshot.items.size());
+        for (String item : snapshot.items) {
+            buffer.putShort(names.get(item).shortValue());
+        }
+
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Unpacks a snapshot from a buffer.
+     *
+     * @param buffer  Buffer positioned at the start of the payload.
+     * @param version Version of the save.
+     * @return the saved state of the game.
+     */
+    private static SaveSnapshot decode(ByteBuffer buffer, int version) {
+
+        int code = buffer.getInt();
+        String gameName = getName(buffer);
+        String date = getName(buffer);
+        String mapId = version > 1 ? getName(buffer) : WorldManager.DEFAULT_ID;
+
+        int playerX = buffer.getInt();
+        int playerY = buffer.getInt();
+        int health = buffer.getInt();
+        int stamina = buffer.getInt();
+
+        String[] names = new String[buffer.getShort()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = getName(buffer);
+        }
+
+        int entityCount = buffer.getInt();
+        if (entityCount < 0 || entityCount > buffer.remaining() / (version > 1 ? ENTITY_SIZE : ENTITY_SIZE_V1)) {
+            throw new IllegalArgumentException("Invalid amount of entities " + entityCount);
+        }
+        ArrayList<SaveSnapshot.EntityRecord> entities = new ArrayList<>(entityCount);
+        for (int i = 0; i < entityCount; i++) {
+            int saveId = buffer.getInt();
+            String entityMap = version > 1 ? names[buffer.getShort()] : WorldManager.DEFAULT_ID;
+            String type = names[buffer.getShort()];
+            entities.add(new SaveSnapshot.EntityRecord(saveId, entityMap, type, buffer.getInt(), buffer.getInt()));
+        }
+
+        int itemCount = buffer.getShort();
+        ArrayList<String> items = new ArrayList<>(Math.max(0, itemCount));
+        for (int i = 0; i < itemCount; i++) {
+            items.add(names[buffer.getShort()]);
+        }
+
+        return new SaveSnapshot(code >= 0 ? code : null, gameName, date, mapId, playerX, playerY, health, stamina,
+                entities, items, null);
+    }
+
+    /**
+     * Compresses a payload.
+     *
+     * @param payload Buffer with the payload, ready to be read.
+     * @return a direct buffer with the compressed payload, ready to be read.
+     */
+    private static ByteBuffer deflate(ByteBuffer payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteBuffer output = ByteBuffer.allocateDirect(payload.remaining() + payload.remaining() / 100 + 64);
+            while (!deflater.finished()) {
+                if (!output.hasRemaining()) {
+                    ByteBuffer larger = ByteBuffer.allocateDirect(output.capacity() * 2);
+                    output.flip();
+                    larger.put(output);
+                    output = larger;
+                }
+                deflater.deflate(output);
+            }
+            output.flip();
+            return output;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Decompresses a payload.
+     *
+     * @param stored Buffer with the compressed payload, ready to be read.
+     * @param size   Size of the payload once decompressed.
+     * @return a direct buffer with the payload, ready to be read.
+     * @throws IOException if the payload isn't valid.
+     */
+    private static ByteBuffer inflate(ByteBuffer stored, int size) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            ByteBuffer output = ByteBuffer.allocateDirect(size);
+            while (!inflater.finished()) {
+                if (inflater.inflate(output) == 0 && (inflater.needsInput() || !output.hasRemaining())) {
+                    throw new IOException("Truncated save payload");
+                }
+            }
+            output.flip();
+            return output;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted save payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // Helper methods to write and read names
+    private static byte[] encodeName(String name) throws IOException {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IOException("Name too long to save: " + name);
+        }
+        return bytes;
+    }
+
+    private static void putName(ByteBuffer buffer, byte[] name) {
+        buffer.putShort((short) name.length).put(name);
+    }
+
+    private static String getName(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads an exact amount of bytes from a channel.
+     *
+     * @param channel Channel to read from.
+     * @param size    Amount of bytes to read.
+     * @return a direct buffer with the bytes, ready to be read.
+     * @throws IOException if the channel ends before.
+     */
+    private static ByteBuffer readFully(FileChannel channel, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Truncated save file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
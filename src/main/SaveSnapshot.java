@@ -0,0 +1,201 @@
+package main;
+
+import main.entities.Enemy;
+import main.entities.Entity;
+import main.entities.EntityStore;
+import main.items.SuperItem;
+import main.tiles.GameMap;
+import main.tiles.WorldManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable copy of the state of a game that has to be saved. It is
+ * captured on the game thread between two ticks, so it is consistent,
+ * and then written by the save thread while the game keeps running.
+ */
+public final class SaveSnapshot {
+
+    // Game data
+    public final Integer gameCode; // null if the game was never saved
+    public final long gameToken; // Token of the game it was captured from, 0 if read from a save
+    public final String gameName;
+    public final String date;
+    public final String mapId; // Map the player is in
+
+    // Player data
+    public final int playerX;
+    public final int playerY;
+    public final int health;
+    public final int stamina;
+
+    public final List<EntityRecord> entities;
+    public final List<String> items;
+    public final GameStatistics statistics; // null if it has no statistics (i.e. read from a save)
+
+    /**
+     * Creates a SaveSnapshot of a game in the default map, without
+     * statistics. The lists must not be modified afterwards.
+     */
+    public SaveSnapshot(Integer gameCode, String gameName, String date, int playerX, int playerY, int health,
+            int stamina, List<EntityRecord> entities, List<String> items) {
+        this(gameCode, gameName, date, WorldManager.DEFAULT_ID, playerX, playerY, health, stamina, entities, items,
+                null);
+    }
+
+    /**
+     * Creates a SaveSnapshot of a saved game, without a game token.
+     * The lists and statistics must not be modified afterwards.
+     */
+    public SaveSnapshot(Integer gameCode, String gameName, String date, String mapId, int playerX, int playerY,
+            int health, int stamina, List<EntityRecord> entities, List<String> items, GameStatistics statistics) {
+        this(gameCode, 0, gameName, date, mapId, playerX, playerY, health, stamina, entities, items, statistics);
+    }
+
+    /**
+     * Creates a SaveSnapshot. The lists and statistics must not be
+     * modified afterwards.
+     */
+    public SaveSnapshot(Integer gameCode, long gameToken, String gameName, String date, String mapId, int playerX,
+            int playerY, int health, int stamina, List<EntityRecord> entities, List<String> items,
+            GameStatistics statistics) {
+        this.gameCode = gameCode;
+        this.gameToken = gameToken;
+        this.gameName = gameName;
+        this.date = date;
+        this.mapId = mapId;
+        this.playerX = playerX;
+        this.playerY = playerY;
+        this.health = health;
+        this.stamina = stamina;
+        this.entities = Collections.unmodifiableList(entities);
+        this.items = Collections.unmodifiableList(items);
+        this.statistics = statistics;
+    }
+
+    /**
+     * Copies the state of a game. Must be called from the game thread
+     * while it isn't updating (i.e. from a screen update). The entities
+     * of the map the player is in and the ones kept by the maps it left
+     * are copied. Entities copied for the first time are given a save id,
+     * so the next saves can tell which rows changed.
+     *
+     * @param game Game to copy.
+     * @return the snapshot of the game.
+     */
+    public static SaveSnapshot capture(Game game) {
+
+        WorldManager worldManager = game.gamePanel.worldManager;
+        GameMap current = worldManager.getCurrent();
+        ArrayList<EntityRecord> entities = new ArrayList<>();
+        addEntities(game, current.id, game.entities, entities);
+        for (GameMap map : worldManager.getMaps()) {
+            if (map != current && map.entities != null) {
+                addEntities(game, map.id, map.entities, entities);
+            }
+        }
+
+        ArrayList<String> items = new ArrayList<>();
+        for (SuperItem item : game.player.inventory) {
+            items.add(item.name);
+        }
+
+        return new SaveSnapshot(game.gameCode, game.token, game.gameName, game.date, current.id,
+                game.player.worldX, game.player.worldY, game.player.health, game.player.stamina, entities, items,
+                game.statistics.copy());
+    }
+
+    // Helper method to copy the enemies of a map
+    private static void addEntities(Game game, String mapId, List<Entity> list, ArrayList<EntityRecord> entities) {
+        for (Entity entity : list) {
+            if (entity.hasComponents(EntityStore.AI)) {
+                if (entity.saveId == 0) {
+                    entity.saveId = game.nextSaveId++;
+                }
+                entities.add(new EntityRecord(entity.saveId, mapId, ((Enemy) entity).archetype.id,
+                        entity.worldX, entity.worldY));
+            }
+        }
+    }
+
+    /**
+     * Returns a copy of this snapshot with a given game code,
+     * i.e. once the game is given one when it is first saved.
+     *
+     * @param gameCode Code of the game.
+     */
+    public SaveSnapshot withGameCode(Integer gameCode) {
+        return new SaveSnapshot(gameCode, gameToken, gameName, date, mapId, playerX, playerY, health, stamina,
+                entities, items, statistics);
+    }
+
+    /**
+     * Returns true if another snapshot has the same state as this one,
+     * i.e. saving this one after it wouldn't change anything. The code
+     * isn't compared, as it is only given to a game when it is saved,
+     * nor the statistics, as the time played changes every tick.
+     *
+     * @param other Snapshot to compare, can be null.
+     */
+    public boolean sameState(SaveSnapshot other) {
+        if (other == null || playerX != other.playerX || playerY != other.playerY || health != other.health
+                || stamina != other.stamina || !gameName.equals(other.gameName) || !date.equals(other.date)
+                || !mapId.equals(other.mapId)
+                || !items.equals(other.items) || entities.size() != other.entities.size()) {
+            return false;
+        }
+        for (int i = 0; i < entities.size(); i++) {
+            if (!entities.get(i).equals(other.entities.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the amount of rows of the snapshot (game, player, entities and items). */
+    public int size() {
+        return 2 + entities.size() + items.size();
+    }
+
+    /**
+     * Saved state of an enemy.
+     */
+    public static final class EntityRecord {
+
+        public final int saveId;
+        public final String mapId; // Map the enemy is in
+        public final String type;
+        public final int x;
+        public final int y;
+
+        /** Creates an EntityRecord of an enemy in the default map. */
+        public EntityRecord(int saveId, String type, int x, int y) {
+            this(saveId, WorldManager.DEFAULT_ID, type, x, y);
+        }
+
+        public EntityRecord(int saveId, String mapId, String type, int x, int y) {
+            this.saveId = saveId;
+            this.mapId = mapId;
+            this.type = type;
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof EntityRecord)) {
+                return false;
+            }
+            EntityRecord other = (EntityRecord) obj;
+            return saveId == other.saveId && x == other.x && y == other.y && type.equals(other.type)
+                    && mapId.equals(other.mapId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * (31 * (31 * saveId + mapId.hashCode()) + type.hashCode()) + x) + y;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * State of a game in the database after its last save, used by the
+ * SqliteSaveBackend to write only what changes in the next one. Telling
+ * which rows a save inserts, updates or deletes doesn't touch the
+ * database, so it can be checked on its own.
+ */
+class SavedGame {
+
+    final int gameCode;
+    final long gameToken; // 0 if read from the database
+    final String gameName;
+    final String date;
+    final String mapId;
+    int playerX, playerY, health, stamina;
+    final HashMap<Integer, SavedEntity> entities = new HashMap<>(); // By save id
+    final ArrayList<String> items = new ArrayList<>();
+
+    SavedGame(int gameCode, String gameName, String date, String mapId) {
+        this(gameCode, 0, gameName, date, mapId);
+    }
+
+    SavedGame(int gameCode, long gameToken, String gameName, String date, String mapId) {
+        this.gameCode = gameCode;
+        this.gameToken = gameToken;
+        this.gameName = gameName;
+        this.date = date;
+        this.mapId = mapId;
+    }
+
+    SavedGame(int gameCode, SaveSnapshot snapshot) {
+        this(gameCode, snapshot.gameToken, snapshot.gameName, snapshot.date, snapshot.mapId);
+        setPlayer(snapshot.playerX, snapshot.playerY, snapshot.health, snapshot.stamina);
+        items.addAll(snapshot.items);
+    }
+
+    void setPlayer(int playerX, int playerY, int health, int stamina) {
+        this.playerX = playerX;
+        this.playerY = playerY;
+        this.health = health;
+        this.stamina = stamina;
+    }
+
+    /**
+     * Returns true if this state is of the game of a snapshot. A snapshot
+     * without a code is of a game still being saved for the first time,
+     * which is told by its token, as another game may have the same name.
+     */
+    boolean isGameOf(SaveSnapshot snapshot) {
+        if (snapshot.gameCode == null) {
+            return gameToken != 0 && gameToken == snapshot.gameToken;
+        }
+        return gameCode == snapshot.gameCode;
+    }
+
+    /**
+     * Returns the rows a save of a snapshot has to change.
+     *
+     * @param base     State of the last save of the game, or null if it
+     *                 isn't known, so every row of the game is written.
+     * @param snapshot State of the game to save.
+     */
+    static Delta diff(SavedGame base, SaveSnapshot snapshot) {
+
+        Delta delta = new Delta(base == null,
+                base == null || !base.date.equals(snapshot.date) || !base.mapId.equals(snapshot.mapId),
+                base == null || base.playerX != snapshot.playerX || base.playerY != snapshot.playerY
+                        || base.health != snapshot.health || base.stamina != snapshot.stamina,
+                base == null || !base.items.equals(snapshot.items));
+
+        HashMap<Integer, SaveSnapshot.EntityRecord> kept = new HashMap<>();
+        for (SaveSnapshot.EntityRecord entity : snapshot.entities) {
+            SavedEntity previous = base == null ? null : base.entities.get(entity.saveId);
+            if (previous == null) {
+                delta.inserted.add(entity);
+            } else {
+                kept.put(entity.saveId, entity);
+                if (previous.changed(entity)) {
+                    delta.updated.add(new SavedEntity(previous.row, entity));
+                }
+            }
+        }
+
+        if (base != null) {
+            for (Map.Entry<Integer, SavedEntity> entry : base.entities.entrySet()) {
+                if (!kept.containsKey(entry.getKey())) {
+                    delta.deleted.add(entry.getValue());
+                }
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Returns the state of a game once a snapshot of it is saved.
+     *
+     * @param base     State of the last save of the game, or null if it wasn't known.
+     * @param gameCode Code of the game.
+     * @param snapshot Saved state of the game.
+     * @param lastRow  Last ROWID of the ENTITIES table before the new
+     *                 entities were inserted, numbered in their order.
+     */
+    static SavedGame after(SavedGame base, int gameCode, SaveSnapshot snapshot, long lastRow) {
+        SavedGame next = new SavedGame(gameCode, snapshot);
+        for (SaveSnapshot.EntityRecord entity : snapshot.entities) {
+            SavedEntity previous = base == null ? null : base.entities.get(entity.saveId);
+            long row = previous != null ? previous.row : ++lastRow;
+            next.entities.put(entity.saveId, new SavedEntity(row, entity));
+        }
+        return next;
+    }
+
+    /** Saved row of an entity. */
+    static class SavedEntity {
+
+        final long row; // ROWID in the ENTITIES table
+        final String mapId;
+        final String type;
+        final int x, y;
+
+        SavedEntity(long row, SaveSnapshot.EntityRecord entity) {
+            this.row = row;
+            this.mapId = entity.mapId;
+            this.type = entity.type;
+            this.x = entity.x;
+            this.y = entity.y;
+        }
+
+        boolean changed(SaveSnapshot.EntityRecord entity) {
+            return x != entity.x || y != entity.y || !type.equals(entity.type) || !mapId.equals(entity.mapId);
+        }
+    }
+
+    /** Rows a save changes. */
+    static class Delta {
+
+        final boolean replaced; // Every row of the game is written again
+        final boolean gameChanged;
+        final boolean playerChanged;
+        final boolean itemsChanged;
+        final ArrayList<SaveSnapshot.EntityRecord> inserted = new ArrayList<>(); // In the order of the snapshot
+        final ArrayList<SavedEntity> updated = new ArrayList<>(); // With their new state
+        final ArrayList<SavedEntity> deleted = new ArrayList<>();
+
+        Delta(boolean replaced, boolean gameChanged, boolean playerChanged, boolean itemsChanged) {
+            this.replaced = replaced;
+            this.gameChanged = gameChanged;
+            this.playerChanged = playerChanged;
+            this.itemsChanged = itemsChanged;
+        }
+
+        /** Returns true if the save doesn't change anything. */
+        boolean isEmpty() {
+            return !gameChanged && !playerChanged && !itemsChanged && inserted.isEmpty() && updated.isEmpty()
+                    && deleted.isEmpty();
+        }
+    }
+}
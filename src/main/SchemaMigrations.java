@@ -0,0 +1,145 @@
+package main;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Level;
+
+/**
+ * Brings the schema of the save database up to the version the code
+ * expects. The version of a database is kept in its user_version, and
+ * every migration takes it one version further in its own transaction,
+ * so a database is never left between two versions. Migrations are only
+ * ever added at the end of the list, never changed once released.
+ */
+public class SchemaMigrations {
+
+    // Migration i takes the database from version i to version i + 1
+    private static final String[][] MIGRATIONS = {
+
+            // 1: Tables of the first release (they already exist in the shipped database)
+            {
+                    "CREATE TABLE IF NOT EXISTS GAMES (CODE INTEGER NOT NULL, NAME TEXT NOT NULL UNIQUE, "
+                            + "DATE TEXT NOT NULL, PRIMARY KEY(CODE AUTOINCREMENT));",
+                    "CREATE TABLE IF NOT EXISTS PLAYER (GAME_CODE INTEGER NOT NULL UNIQUE, POSX INTEGER NOT NULL, "
+                            + "POSY INTEGER NOT NULL, HEALTH INTEGER NOT NULL, STAMINA INTEGER NOT NULL, "
+                            + "ITEM TEXT NOT NULL, FOREIGN KEY(GAME_CODE) REFERENCES GAMES(CODE));",
+                    "CREATE TABLE IF NOT EXISTS ENTITIES (GAME_CODE INTEGER NOT NULL, TYPE TEXT NOT NULL, "
+                            + "POSX INTEGER NOT NULL, POSY INTEGER NOT NULL, "
+                            + "FOREIGN KEY(GAME_CODE) REFERENCES GAMES(CODE));",
+                    "CREATE TABLE IF NOT EXISTS ITEMS (GAME_CODE INTEGER NOT NULL, TYPE TEXT NOT NULL, "
+                            + "FOREIGN KEY(GAME_CODE) REFERENCES GAMES(CODE));"
+            },
+
+            // 2: Rows of a game are deleted with it, and the ones of already deleted games are dropped
+            {
+                    "CREATE TABLE PLAYER_NEW (GAME_CODE INTEGER NOT NULL UNIQUE, POSX INTEGER NOT NULL, "
+                            + "POSY INTEGER NOT NULL, HEALTH INTEGER NOT NULL, STAMINA INTEGER NOT NULL, "
+                            + "ITEM TEXT NOT NULL, FOREIGN KEY(GAME_CODE) REFERENCES GAMES(CODE) ON DELETE CASCADE);",
+                    "INSERT INTO PLAYER_NEW (ROWID, GAME_CODE, POSX, POSY, HEALTH, STAMINA, ITEM) "
+                            + "SELECT ROWID, GAME_CODE, POSX, POSY, HEALTH, STAMINA, ITEM FROM PLAYER "
+                            + "WHERE GAME_CODE IN (SELECT CODE FROM GAMES);",
+                    "DROP TABLE PLAYER;",
+                    "ALTER TABLE PLAYER_NEW RENAME TO PLAYER;",
+
+                    "CREATE TABLE ENTITIES_NEW (GAME_CODE INTEGER NOT NULL, TYPE TEXT NOT NULL, "
+                            + "POSX INTEGER NOT NULL, POSY INTEGER NOT NULL, "
+                            + "FOREIGN KEY(GAME_CODE) REFERENCES GAMES(CODE) ON DELETE CASCADE);",
+                    "INSERT INTO ENTITIES_NEW (ROWID, GAME_CODE, TYPE, POSX, POSY) "
+                            + "SELECT ROWID, GAME_CODE, TYPE, POSX, POSY FROM ENTITIES "
+                            + "WHERE GAME_CODE IN (SELECT CODE FROM GAMES);",
+                    "DROP TABLE ENTITIES;",
+                    "ALTER TABLE ENTITIES_NEW RENAME TO ENTITIES;",
+
+                    "CREATE TABLE ITEMS_NEW (GAME_CODE INTEGER NOT NULL, TYPE TEXT NOT NULL, "
+                            + "FOREIGN KEY(GAME_CODE) REFERENCES GAMES(CODE) ON DELETE CASCADE);",
+                    "INSERT INTO ITEMS_NEW (ROWID, GAME_CODE, TYPE) "
+                            + "SELECT ROWID, GAME_CODE, TYPE FROM ITEMS WHERE GAME_CODE IN (SELECT CODE FROM GAMES);",
+                    "DROP TABLE ITEMS;",
+                    "ALTER TABLE ITEMS_NEW RENAME TO ITEMS;"
+            },
+
+            // 3: Indexes for the rows of a game (PLAYER already has one by UNIQUE) and the recent games
+            {
+                    "CREATE INDEX IF NOT EXISTS ENTITIES_GAME_CODE ON ENTITIES (GAME_CODE);",
+                    "CREATE INDEX IF NOT EXISTS ITEMS_GAME_CODE ON ITEMS (GAME_CODE);",
+                    "CREATE INDEX IF NOT EXISTS GAMES_DATE ON GAMES (DATE);"
+            },
+
+            // 4: Totals of every game at its last save, read by the statistics screen
+            {
+                    "CREATE TABLE IF NOT EXISTS STATISTICS (GAME_CODE INTEGER NOT NULL UNIQUE, "
+                            + "HEALTH INTEGER NOT NULL, STAMINA INTEGER NOT NULL, ENEMIES INTEGER NOT NULL, "
+                            + "KILLS INTEGER NOT NULL, DAMAGE_TAKEN INTEGER NOT NULL, ITEMS_PICKED INTEGER NOT NULL, "
+                            + "TIME_PLAYED INTEGER NOT NULL, DISTANCE INTEGER NOT NULL, "
+                            + "FOREIGN KEY(GAME_CODE) REFERENCES GAMES(CODE) ON DELETE CASCADE);"
+            },
+
+            // 5: Map of the player and of every enemy (games saved before are in the first map)
+            {
+                    "ALTER TABLE GAMES ADD COLUMN MAP TEXT NOT NULL DEFAULT 'Map3';",
+                    "ALTER TABLE ENTITIES ADD COLUMN MAP TEXT NOT NULL DEFAULT 'Map3';"
+            }
+    };
+
+    public static final int VERSION = MIGRATIONS.length;
+
+    private SchemaMigrations() {
+    }
+
+    /**
+     * Returns the schema version of a database (0 if it was never migrated).
+     *
+     * @param conn Connection to the database.
+     * @throws SQLException if the version can't be read.
+     */
+    public static int getVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("PRAGMA user_version;")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Runs the migrations a database is missing. Must be called before
+     * foreign keys are enforced, as tables are rebuilt.
+     *
+     * @param conn Connection to the database, in auto-commit mode.
+     * @throws SQLException if a migration fails (the database stays at the
+     *                      last version that succeeded) or the database
+     *                      is newer than the code.
+     */
+    public static void migrate(Connection conn) throws SQLException {
+
+        int version = getVersion(conn);
+        if (version > VERSION) {
+            throw new SQLException("Database schema version " + version + " is newer than " + VERSION);
+        }
+
+        for (; version < VERSION; version++) {
+            long start = System.nanoTime();
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : MIGRATIONS[version]) {
+                    stmt.execute(sql);
+                }
+                stmt.execute("PRAGMA user_version = " + (version + 1) + ";");
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+            GamePanel.logger.log(Level.INFO, "Database Migrated to Version " + (version + 1) + " in "
+                    + (System.nanoTime() - start) / 1000000 + " ms");
+        }
+
+        // Rows left without their game would make deleting or saving it fail
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("PRAGMA foreign_key_check;")) {
+            if (rs.next()) {
+                GamePanel.logger.log(Level.WARNING, "Rows Without Game in " + rs.getString(1));
+            }
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package main;
+
+import java.io.IOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.logging.Level;
+
+/**
+ * Saves the games in the tables of the database, with a row per entity
+ * and item. It keeps the state it last wrote, so a save of the same game
+ * only writes the rows that changed. It also keeps the GAMES table, the
+ * list of saved games, for every backend.
+ */
+public class SqliteSaveBackend implements SaveBackend {
+
+    public static final String NAME = "sqlite";
+
+    GamePanel gamePanel;
+
+    private SavedGame saved; // State of the last saved or loaded game, guarded by the database
+
+    // Statements cached by the database
+    private static final String INSERT_GAME_SQL = "INSERT INTO GAMES (NAME, DATE, MAP) VALUES (?, ?, ?);";
+    private static final String LAST_CODE_SQL = "SELECT last_insert_rowid();";
+    private static final String UPDATE_GAME_SQL = "UPDATE GAMES SET DATE = ?, MAP = ? WHERE CODE = ?;";
+    private static final String DELETE_GAME_SQL = "DELETE FROM GAMES WHERE CODE = ?;";
+    private static final String UPSERT_PLAYER_SQL = "INSERT INTO PLAYER (GAME_CODE, POSX, POSY, HEALTH, STAMINA, ITEM) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT(GAME_CODE) DO UPDATE SET POSX = excluded.POSX, POSY = excluded.POSY, "
+            + "HEALTH = excluded.HEALTH, STAMINA = excluded.STAMINA, ITEM = excluded.ITEM;";
+    private static final String INSERT_ENTITY_SQL = "INSERT INTO ENTITIES (GAME_CODE, MAP, TYPE, POSX, POSY) VALUES (?, ?, ?, ?, ?);";
+    private static final String UPDATE_ENTITY_SQL = "UPDATE ENTITIES SET MAP = ?, TYPE = ?, POSX = ?, POSY = ? WHERE ROWID = ?;";
+    private static final String DELETE_ENTITY_SQL = "DELETE FROM ENTITIES WHERE ROWID = ?;";
+    private static final String DELETE_ENTITIES_SQL = "DELETE FROM ENTITIES WHERE GAME_CODE = ?;";
+    private static final String LAST_ENTITY_ROW_SQL = "SELECT IFNULL(MAX(ROWID), 0) FROM ENTITIES;";
+    private static final String INSERT_ITEM_SQL = "INSERT INTO ITEMS (GAME_CODE, TYPE) VALUES (?, ?);";
+    private static final String DELETE_ITEMS_SQL = "DELETE FROM ITEMS WHERE GAME_CODE = ?;";
+    private static final String SELECT_GAME_SQL = "SELECT G.NAME, G.DATE, G.MAP, P.POSX, P.POSY, P.HEALTH, P.STAMINA "
+            + "FROM GAMES G LEFT JOIN PLAYER P ON P.GAME_CODE = G.CODE WHERE G.CODE = ?;";
+    private static final String SELECT_ENTITIES_SQL = "SELECT ROWID, MAP, TYPE, POSX, POSY FROM ENTITIES WHERE GAME_CODE = ?;";
+    private static final String SELECT_ITEMS_SQL = "SELECT TYPE FROM ITEMS WHERE GAME_CODE = ? ORDER BY ROWID;";
+    private static final String UPSERT_STATISTICS_SQL = "INSERT INTO STATISTICS (GAME_CODE, HEALTH, STAMINA, ENEMIES, "
+            + "KILLS, DAMAGE_TAKEN, ITEMS_PICKED, TIME_PLAYED, DISTANCE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT(GAME_CODE) DO UPDATE SET HEALTH = excluded.HEALTH, STAMINA = excluded.STAMINA, "
+            + "ENEMIES = excluded.ENEMIES, KILLS = excluded.KILLS, DAMAGE_TAKEN = excluded.DAMAGE_TAKEN, "
+            + "ITEMS_PICKED = excluded.ITEMS_PICKED, TIME_PLAYED = excluded.TIME_PLAYED, DISTANCE = excluded.DISTANCE;";
+    private static final String SELECT_STATISTICS_SQL = "SELECT HEALTH, STAMINA, ENEMIES, KILLS, DAMAGE_TAKEN, "
+            + "ITEMS_PICKED, TIME_PLAYED, DISTANCE FROM STATISTICS WHERE GAME_CODE = ?;";
+
+    /**
+     * Creates a SqliteSaveBackend.
+     * 
+     * @param gamePanel GamePanel with the database.
+     */
+    public SqliteSaveBackend(GamePanel gamePanel) {
+        this.gamePanel = gamePanel;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Writes a snapshot of a game in the database. Only what changed since
+     * the last save of the same game is written: the rows of the moved
+     * entities are updated, the new ones inserted and the removed ones
+     * deleted, and nothing is written at all if nothing changed. The first
+     * save of a game writes everything. It is done in a single transaction,
+     * so a save is either complete or not saved at all.
+     * 
+     * @param snapshot State of the game to save.
+     * @return the code of the saved game.
+     * @throws IOException if the game couldn't be saved.
+     */
+    @Override
+    public int write(SaveSnapshot snapshot) throws IOException {
+        synchronized (gamePanel.database) {
+
+            // The last save is only used if it is of the same game
+            SavedGame base = saved;
+            if (base != null && !base.isGameOf(snapshot)) {
+                base = null;
+            }
+            Integer gameCode = base != null ? Integer.valueOf(base.gameCode) : snapshot.gameCode;
+            SavedGame.Delta delta = SavedGame.diff(base, snapshot);
+            if (delta.isEmpty()) {
+                GamePanel.logger.log(Level.FINE, "Game not saved, nothing changed");
+                return gameCode;
+            }
+
+            Connection conn = null;
+            long start = System.nanoTime();
+            try {
+                conn = gamePanel.database.getConnection();
+                conn.setAutoCommit(false);
+                PreparedStatement stmt;
+
+                // SAVE GAME
+                if (gameCode == null || delta.gameChanged) {
+                    gameCode = writeGame(gameCode, snapshot);
+                }
+
+                // SAVE PLAYER
+                if (delta.playerChanged) {
+                    stmt = gamePanel.database.prepare(UPSERT_PLAYER_SQL);
+                    stmt.setInt(1, gameCode);
+                    stmt.setInt(2, snapshot.playerX);
+                    stmt.setInt(3, snapshot.playerY);
+                    stmt.setInt(4, snapshot.health);
+                    stmt.setInt(5, snapshot.stamina);
+                    stmt.setString(6, "SWORD");
+                    stmt.executeUpdate();
+                }
+
+                // SAVE ENTITIES
+                if (delta.replaced) {
+                    // Rows of a previous save without a known state are replaced
+                    stmt = gamePanel.database.prepare(DELETE_ENTITIES_SQL);
+                    stmt.setInt(1, gameCode);
+                    stmt.executeUpdate();
+                }
+                if (!delta.updated.isEmpty()) {
+                    stmt = gamePanel.database.prepare(UPDATE_ENTITY_SQL);
+                    for (SavedGame.SavedEntity entity : delta.updated) {
+                        stmt.setString(1, entity.mapId);
+                        stmt.setString(2, entity.type);
+                        stmt.setInt(3, entity.x);
+                        stmt.setInt(4, entity.y);
+                        stmt.setLong(5, entity.row);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+                if (!delta.deleted.isEmpty()) {
+                    stmt = gamePanel.database.prepare(DELETE_ENTITY_SQL);
+                    for (SavedGame.SavedEntity entity : delta.deleted) {
+                        stmt.setLong(1, entity.row);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                long lastRow = 0;
+                if (!delta.inserted.isEmpty()) {
+                    // Rows are numbered after the last one, in the order they are inserted
+                    try (ResultSet rs = gamePanel.database.prepare(LAST_ENTITY_ROW_SQL).executeQuery()) {
+                        lastRow = rs.getLong(1);
+                    }
+                    stmt = gamePanel.database.prepare(INSERT_ENTITY_SQL);
+                    for (SaveSnapshot.EntityRecord entity : delta.inserted) {
+                        stmt.setInt(1, gameCode);
+                        stmt.setString(2, entity.mapId);
+                        stmt.setString(3, entity.type);
+                        stmt.setInt(4, entity.x);
+                        stmt.setInt(5, entity.y);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                // SAVE PLAYER INVENTORY
+                if (delta.itemsChanged) {
+                    stmt = gamePanel.database.prepare(DELETE_ITEMS_SQL);
+                    stmt.setInt(1, gameCode);
+                    stmt.executeUpdate();
+
+                    stmt = gamePanel.database.prepare(INSERT_ITEM_SQL);
+                    for (String item : snapshot.items) {
+                        stmt.setInt(1, gameCode);
+                        stmt.setString(2, item);
+                        stmt.addBatch();
+                    }
+                    stmt.executeBatch();
+                }
+
+                conn.commit();
+                saved = SavedGame.after(base, gameCode, snapshot, lastRow);
+                GamePanel.logger.log(Level.INFO, "Game saved (" + delta.inserted.size() + " entities inserted, "
+                        + delta.updated.size() + " updated, " + delta.deleted.size() + " deleted) in "
+                        + (System.nanoTime() - start) / 1000000 + " ms");
+                return gameCode;
+
+            } catch (SQLException e) {
+                rollback(conn);
+                throw new IOException("SQLite connection failed: " + e.getMessage(), e);
+            } finally {
+                endTransaction(conn);
+            }
+        }
+    }
+
+    /**
+     * Reads a game from the database. The entities are given save ids
+     * in the order they are read, and what is read is kept as the state
+     * of the game, so its next save only writes what changes.
+     * 
+     * @param code Code of the game.
+     * @return the state of the game, or null if there is no such game.
+     * @throws IOException if the game couldn't be read.
+     */
+    @Override
+    public SaveSnapshot read(int code) throws IOException {
+        synchronized (gamePanel.database) {
+            try {
+                PreparedStatement stmt;
+
+                // LOAD GAME AND PLAYER
+                stmt = gamePanel.database.prepare(SELECT_GAME_SQL);
+                stmt.setInt(1, code);
+                SavedGame loaded;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    loaded = new SavedGame(code, rs.getString(1), rs.getString(2), rs.getString(3));
+                    loaded.setPlayer(rs.getInt(4), rs.getInt(5), rs.getInt(6), rs.getInt(7));
+                }
+
+                // LOAD ENTITIES
+                stmt = gamePanel.database.prepare(SELECT_ENTITIES_SQL);
+                stmt.setInt(1, code);
+                ArrayList<SaveSnapshot.EntityRecord> entities = new ArrayList<>();
+                HashMap<String, String> names = new HashMap<>(); // One string per map and type for all the entities
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        // Entities are given save ids in the order they are read
+                        String map = names.computeIfAbsent(rs.getString(2), key -> key);
+                        String type = names.computeIfAbsent(rs.getString(3), key -> key);
+                        SaveSnapshot.EntityRecord entity = new SaveSnapshot.EntityRecord(entities.size() + 1,
+                                map, type, rs.getInt(4), rs.getInt(5));
+                        entities.add(entity);
+                        loaded.entities.put(entity.saveId, new SavedGame.SavedEntity(rs.getLong(1), entity));
+                    }
+                }
+
+                // LOAD PLAYER INVENTORY
+                stmt = gamePanel.database.prepare(SELECT_ITEMS_SQL);
+                stmt.setInt(1, code);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        loaded.items.add(rs.getString(1));
+                    }
+                }
+
+                saved = loaded;
+                return new SaveSnapshot(loaded.gameCode, loaded.gameName, loaded.date, loaded.mapId, loaded.playerX,
+                        loaded.playerY, loaded.health, loaded.stamina, entities, loaded.items, null);
+
+            } catch (SQLException e) {
+                throw new IOException("SQLite connection failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Forgets the state of a deleted game. Its rows are deleted
+     * with the game (ON DELETE CASCADE).
+     * 
+     * @param code Code of the game.
+     */
+    @Override
+    public void delete(int code) {
+        synchronized (gamePanel.database) {
+            if (saved != null && saved.gameCode == code) {
+                saved = null;
+            }
+        }
+    }
+
+    /**
+     * Writes the totals of a saved game in the STATISTICS table. The
+     * totals replace the ones of its previous save instead of being added
+     * to them, so writing them again after a failed save counts nothing twice.
+     * 
+     * @param gameCode Code of the game.
+     * @param snapshot Saved state of the game, with its statistics.
+     * @throws IOException if the totals couldn't be written.
+     */
+    public void writeStatistics(int gameCode, SaveSnapshot snapshot) throws IOException {
+        if (snapshot.statistics == null) {
+            return;
+        }
+        synchronized (gamePanel.database) {
+            try {
+                PreparedStatement stmt = gamePanel.database.prepare(UPSERT_STATISTICS_SQL);
+                stmt.setInt(1, gameCode);
+                stmt.setInt(2, snapshot.health);
+                stmt.setInt(3, snapshot.stamina);
+                stmt.setInt(4, snapshot.entities.size());
+                stmt.setInt(5, snapshot.statistics.kills);
+                stmt.setInt(6, snapshot.statistics.damageTaken);
+                stmt.setInt(7, snapshot.statistics.itemsPickedUp);
+                stmt.setLong(8, snapshot.statistics.getSecondsPlayed(gamePanel.FPS));
+                stmt.setLong(9, snapshot.statistics.distanceWalked);
+                stmt.executeUpdate();
+            } catch (SQLException e) {
+                throw new IOException("SQLite connection failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Reads the totals of a saved game from the STATISTICS table.
+     * 
+     * @param gameCode Code of the game.
+     * @return the totals of the game, or null if it was saved without them.
+     * @throws IOException if the totals couldn't be read.
+     */
+    public StatisticsRecord readStatistics(int gameCode) throws IOException {
+        synchronized (gamePanel.database) {
+            try {
+                PreparedStatement stmt = gamePanel.database.prepare(SELECT_STATISTICS_SQL);
+                stmt.setInt(1, gameCode);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    return new StatisticsRecord(gameCode, rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4),
+                            rs.getInt(5), rs.getInt(6), rs.getLong(7), rs.getLong(8));
+                }
+            } catch (SQLException e) {
+                throw new IOException("SQLite connection failed: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Writes the row of a game in the list of saved games, adding it if
+     * it doesn't have a code yet. Used inside the transaction of a save,
+     * or on its own by the backends that don't save in the database.
+     * 
+     * @param gameCode Code of the game, or null if it was never saved.
+     * @param snapshot State of the game.
+     * @return the code of the game.
+     * @throws SQLException if the row couldn't be written.
+     */
+    int writeGame(Integer gameCode, SaveSnapshot snapshot) throws SQLException {
+        synchronized (gamePanel.database) {
+            PreparedStatement stmt;
+            if (gameCode == null) {
+                stmt = gamePanel.database.prepare(INSERT_GAME_SQL);
+                stmt.setString(1, snapshot.gameName);
+                stmt.setString(2, snapshot.date);
+                stmt.setString(3, snapshot.mapId);
+                stmt.executeUpdate();
+                try (ResultSet rs = gamePanel.database.prepare(LAST_CODE_SQL).executeQuery()) {
+                    return rs.getInt(1);
+                }
+            }
+            stmt = gamePanel.database.prepare(UPDATE_GAME_SQL);
+            stmt.setString(1, snapshot.date);
+            stmt.setString(2, snapshot.mapId);
+            stmt.setInt(3, gameCode);
+            stmt.executeUpdate();
+            return gameCode;
+        }
+    }
+
+    /**
+     * Removes a game from the list of saved games, i.e. after its
+     * first save failed in another backend.
+     * 
+     * @param gameCode Code of the game.
+     * @throws SQLException if the row couldn't be deleted.
+     */
+    void removeGame(int gameCode) throws SQLException {
+        synchronized (gamePanel.database) {
+            PreparedStatement stmt = gamePanel.database.prepare(DELETE_GAME_SQL);
+            stmt.setInt(1, gameCode);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Undoes the changes of the current transaction after an error.
+     * 
+     * @param conn Connection of the transaction, or null if it couldn't be opened.
+     */
+    private void rollback(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                GamePanel.logger.log(Level.SEVERE, "SQLite rollback failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Goes back to auto-commit mode after a transaction.
+     * 
+     * @param conn Connection of the transaction, or null if it couldn't be opened.
+     */
+    private void endTransaction(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.setAutoCommit(true);
+            } catch (SQLException e) {
+                GamePanel.logger.log(Level.SEVERE, "SQLite connection failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -2,24 +2,23 @@ package main;
 
 import java.awt.Image;
 import java.awt.LayoutManager;
-import java.util.ArrayList;
+import java.util.List;
 
 import javax.swing.JFrame;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
-import javax.swing.event.TableModelListener;
-import javax.swing.table.TableModel;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
+import javax.swing.SwingUtilities;
 
 public class Statistics extends JFrame {
 
     private GamePanel gamePanel;
-    private ArrayList<Game> games;
+    private GamesTableModel gamesModel;
 
     public Statistics(GamePanel gamePanel) {
 
@@ -27,15 +26,32 @@ public class Statistics extends JFrame {
         this.setResizable(false);
         this.setTitle("Shadows Of Despair");
 
-        // Load the games
-        this.games = gamePanel.gameManager.loadGames();
-
         JPanel statisticsPanel = new JPanel();
 
-        // Create the statistics table
-        String[] columnNames = { "CODE", "NAME", "DATE" };
-        StatisticsModel statisticsModel = new StatisticsModel(columnNames, games);
-        JTable statisticsTable = new JTable(statisticsModel);
+        // Create the statistics table (the games are read page by page when it is shown)
+        GameManager gameManager = gamePanel.gameManager;
+        gamesModel = new GamesTableModel(new GamesTableModel.Source() {
+            @Override
+            public int count() {
+                return gameManager.countGames();
+            }
+
+            @Override
+            public List<GameRecord> after(int gameCode, int limit) {
+                return gameManager.loadGamesAfter(gameCode, limit);
+            }
+
+            @Override
+            public List<GameRecord> before(int gameCode, int limit) {
+                return gameManager.loadGamesBefore(gameCode, limit);
+            }
+
+            @Override
+            public List<GameRecord> at(int offset, int limit) {
+                return gameManager.loadGamesAt(offset, limit);
+            }
+        });
+        JTable statisticsTable = new JTable(gamesModel);
         JScrollPane statisticsScrollPane = new JScrollPane(statisticsTable);
         statisticsScrollPane.setBounds(0, 0, 500, 500);
         statisticsPanel.add(statisticsScrollPane);
@@ -49,11 +65,10 @@ public class Statistics extends JFrame {
         // Button to see statistics of a game
         JButton seeStatisticsButton = new JButton("See Statistics");
         seeStatisticsButton.addActionListener(e -> {
-            int selectedRow = statisticsTable.getSelectedRow();
-            if (selectedRow != -1) {
-                Game game = games.get(selectedRow);
-                InnerStatistics innerStatistics = new InnerStatistics(game);
-                ;
+            GameRecord record = gamesModel.getRecord(statisticsTable.getSelectedRow());
+            if (record != null) {
+                StatisticsRecord statistics = gameManager.loadStatistics(record.gameCode);
+                InnerStatistics innerStatistics = new InnerStatistics(record, statistics);
             }
         });
 
@@ -65,87 +80,27 @@ public class Statistics extends JFrame {
         this.setVisible(false);
     }
 
-    public class StatisticsModel implements TableModel {
-
-        private String[] columnNames;
-        private ArrayList<Game> games;
-
-        public StatisticsModel(String[] columnNames, ArrayList<Game> games) {
-            super();
-            this.columnNames = columnNames;
-            this.games = games;
-        }
-
-        @Override
-        public int getRowCount() {
-            return games.size();
-        }
-
-        @Override
-        public int getColumnCount() {
-            return columnNames.length;
-        }
-
-        @Override
-        public String getColumnName(int columnIndex) {
-            return columnNames[columnIndex];
-        }
-
-        @Override
-        public Class<?> getColumnClass(int columnIndex) {
-
-            switch (columnIndex) {
-                case 0:
-                    return Integer.class;
-                case 1:
-                    return String.class;
-                case 2:
-                    return String.class;
-                default:
-                    return null;
-            }
-        }
-
-        @Override
-        public boolean isCellEditable(int rowIndex, int columnIndex) {
-            return false;
-        }
-
-        @Override
-        public Object getValueAt(int rowIndex, int columnIndex) {
-
-            switch (columnIndex) {
-                case 0:
-                    return games.get(rowIndex).gameCode;
-                case 1:
-                    return games.get(rowIndex).gameName;
-                case 2:
-                    return games.get(rowIndex).date;
-                default:
-                    return null;
-            }
-        }
-
-        @Override
-        public void setValueAt(Object aValue, int rowIndex, int columnIndex) {
-        }
-
-        @Override
-        public void addTableModelListener(TableModelListener l) {
-        }
-
-        @Override
-        public void removeTableModelListener(TableModelListener l) {
-        }
+    /** Reads the saved games again, i.e. before showing the statistics. */
+    public void refresh() {
+        SwingUtilities.invokeLater(gamesModel::reload);
     }
 
     public class InnerStatistics extends JFrame {
 
-        private Game game;
+        private GameRecord game;
 
-        public InnerStatistics(Game game) {
+        /**
+         * Shows the statistics of a saved game, as they were at its last save.
+         *
+         * @param game       Saved game.
+         * @param statistics Statistics of the game, or null if it was saved without them.
+         */
+        public InnerStatistics(GameRecord game, StatisticsRecord statistics) {
 
             this.game = game;
+            if (statistics == null) {
+                statistics = new StatisticsRecord(game.gameCode, 0, 0, 0, 0, 0, 0, 0, 0);
+            }
             this.setResizable(false);
             this.setTitle(game.gameName + " Statistics");
             JPanel innerStatisticsPanel = new JPanel();
@@ -158,14 +113,21 @@ public class Statistics extends JFrame {
             Image playerScaledImage = playerImage.getScaledInstance(50, 50, java.awt.Image.SCALE_SMOOTH);
             playerIcon = new ImageIcon(playerScaledImage);
             JLabel playerLabel = new JLabel(playerIcon);
-            JLabel playerHealthLabel = new JLabel("Player Health: " + game.player.health);
-            JLabel playerStaminaLabel = new JLabel("Player Stamina: " + game.player.stamina);
+            JLabel playerHealthLabel = new JLabel("Player Health: " + statistics.health);
+            JLabel playerStaminaLabel = new JLabel("Player Stamina: " + statistics.stamina);
+            JLabel damageTakenLabel = new JLabel("Damage Taken: " + statistics.damageTaken);
+            JLabel itemsPickedUpLabel = new JLabel("Items Picked Up: " + statistics.itemsPickedUp);
+            JLabel distanceWalkedLabel = new JLabel("Distance Walked: "
+                    + statistics.distanceWalked / gamePanel.tileSize + " tiles");
+            JLabel timePlayedLabel = new JLabel(String.format("Time Played: %d:%02d:%02d",
+                    statistics.secondsPlayed / 3600, statistics.secondsPlayed / 60 % 60, statistics.secondsPlayed % 60));
             ImageIcon enemyIcon = new ImageIcon("src/main/res/icons/enemy.png");
             Image enemyImage = enemyIcon.getImage();
             Image enemyScaledImage = enemyImage.getScaledInstance(50, 50, java.awt.Image.SCALE_SMOOTH);
             enemyIcon = new ImageIcon(enemyScaledImage);
             JLabel enemyLabel = new JLabel(enemyIcon);
-            JLabel aliveEnemiesLabel = new JLabel("Alive Enemies: " + game.entities.size());
+            JLabel aliveEnemiesLabel = new JLabel("Alive Enemies: " + statistics.enemies);
+            JLabel killsLabel = new JLabel("Kills: " + statistics.kills);
 
             // Button to go back to the main statistics menu
             JButton backToMenuButton = new JButton("Back");
@@ -177,8 +139,13 @@ public class Statistics extends JFrame {
             innerStatisticsPanel.add(playerLabel);
             innerStatisticsPanel.add(playerHealthLabel);
             innerStatisticsPanel.add(playerStaminaLabel);
+            innerStatisticsPanel.add(damageTakenLabel);
+            innerStatisticsPanel.add(itemsPickedUpLabel);
+            innerStatisticsPanel.add(distanceWalkedLabel);
+            innerStatisticsPanel.add(timePlayedLabel);
             innerStatisticsPanel.add(enemyLabel);
             innerStatisticsPanel.add(aliveEnemiesLabel);
+            innerStatisticsPanel.add(killsLabel);
             innerStatisticsPanel.add(backToMenuButton);
             this.add(innerStatisticsPanel);
             this.pack();
@@ -0,0 +1,31 @@
+package main;
+
+/**
+ * Row of the STATISTICS table, with the totals of a saved game as they
+ * were at its last save, so showing them doesn't read the rows of the game.
+ */
+public final class StatisticsRecord {
+
+    public final int gameCode;
+    public final int health;
+    public final int stamina;
+    public final int enemies; // Alive enemies
+    public final int kills;
+    public final int damageTaken;
+    public final int itemsPickedUp;
+    public final long secondsPlayed;
+    public final long distanceWalked; // Pixels
+
+    public StatisticsRecord(int gameCode, int health, int stamina, int enemies, int kills, int damageTaken,
+            int itemsPickedUp, long secondsPlayed, long distanceWalked) {
+        this.gameCode = gameCode;
+        this.health = health;
+        this.stamina = stamina;
+        this.enemies = enemies;
+        this.kills = kills;
+        this.damageTaken = damageTaken;
+        this.itemsPickedUp = itemsPickedUp;
+        this.secondsPlayed = secondsPlayed;
+        this.distanceWalked = distanceWalked;
+    }
+}
@@ -100,6 +100,7 @@ public class TitleScreen implements Drawable {
                 } catch (InterruptedException e) {
                     gamePanel.logger.log(Level.SEVERE, "Thread.sleep() Failed", e);
                 }
+                statistics.refresh();
                 statistics.setVisible(true);
                 resetIndex();
             }
@@ -124,9 +125,14 @@ public class TitleScreen implements Drawable {
                 gameName = nameGenerator.getRandomName();
             }
 
-            // SUBMIT
-            if (selectionIndex == 1 && gamePanel.keyHandler.isKeyPressed(KeyEvent.VK_ENTER)) {
+            // SUBMIT (once the resources are loaded)
+            if (selectionIndex == 1 && gamePanel.keyHandler.isKeyPressed(KeyEvent.VK_ENTER)
+                    && gamePanel.resourceLoader.isDone()) {
                 gamePanel.currentGame.gameName = gameName;
+                gamePanel.worldManager.reset(); // New games start in the default map
+                gamePanel.currentGame.gameCode = null; // Saved as a new game
+                gamePanel.currentGame.token = Game.nextToken(); // Even if named like another one
+                gamePanel.currentGame.statistics = new GameStatistics();
                 newGame = false;
                 gamePanel.pauseState = false;
                 gamePanel.newGame = true;
@@ -147,13 +153,15 @@ public class TitleScreen implements Drawable {
 
         } else if (gameLoad) {
 
-            // LOAD SELECTED GAME
-            if (selectionCol == 0 && gamePanel.keyHandler.isKeyPressed(KeyEvent.VK_ENTER)) {
+            // LOAD SELECTED GAME (once the resources are loaded)
+            if (selectionCol == 0 && gamePanel.keyHandler.isKeyPressed(KeyEvent.VK_ENTER)
+                    && gamePanel.resourceLoader.isDone()) {
                 try {
                     Thread.sleep(100);
                 } catch (InterruptedException e) {
                     gamePanel.logger.log(Level.SEVERE, "Thread.sleep() Failed", e);
                 }
+                gamePanel.worldManager.reset(); // The saved map is entered when the game is loaded
                 gamePanel.gameManager.loadGame(recentGameCodes[selectionIndex]);
                 gamePanel.currentGame = gamePanel.gameManager.currentGame;
                 gamePanel.pauseState = false;
@@ -354,6 +362,36 @@ public class TitleScreen implements Drawable {
             g2.setColor(selectionCol == 2 ? FontManager.highlightColor : FontManager.fontColor);
             g2.drawString("BACK", backX, backY);
         }
+
+        // LOADING PROGRESS
+        if (!gamePanel.resourceLoader.isDone()) {
+            drawProgress(g2);
+        }
+    }
+
+    /**
+     * Draws a progress bar with the resources loaded in the background.
+     * 
+     * @param g2 Graphics2D object where the progress bar will be drawn into.
+     */
+    private void drawProgress(Graphics2D g2) {
+
+        int barWidth = gamePanel.screenWidth / 2;
+        int barHeight = 12;
+        int barX = (gamePanel.screenWidth - barWidth) / 2;
+        int barY = gamePanel.screenHeight - 80;
+
+        g2.setColor(Color.DARK_GRAY);
+        g2.fillRect(barX, barY, barWidth, barHeight);
+        g2.setColor(FontManager.highlightColor);
+        g2.fillRect(barX, barY, (int) (barWidth * gamePanel.resourceLoader.getProgress()), barHeight);
+        g2.setColor(FontManager.fontColor);
+        g2.drawRect(barX, barY, barWidth, barHeight);
+
+        g2.setFont(FontManager.optionFont);
+        String text = "LOADING " + gamePanel.resourceLoader.getCurrent().toUpperCase();
+        int textX = (gamePanel.screenWidth - g2.getFontMetrics().stringWidth(text)) / 2;
+        g2.drawString(text, textX, barY - 15);
     }
 
     public void resetTitle() {
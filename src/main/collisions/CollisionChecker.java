@@ -1,14 +1,12 @@
 package main.collisions;
 
+import main.entities.Direction;
 import main.entities.Entity;
 import main.GamePanel;
 import main.assets.SuperAsset;
+import main.tiles.WorldMap;
 
 import java.awt.*;
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.util.logging.Level;
 
 /** Class that manages main.collisions between the environment
  * and the main.entities in it.
@@ -18,8 +16,6 @@ public class CollisionChecker {
 	GamePanel gamePanel;
 
 	// main.Collisions
-	public int[][] collisionMap;
-
 	Rectangle[] collisions;
 
 	// The pair of tiles the player is facing
@@ -37,30 +33,10 @@ public class CollisionChecker {
 		tile2Collision = new Rectangle();
 	}
 
-	/** Loads the collision map from a file*/
+	/** Loads the shapes of the tile main.collisions. The collision
+	 * layer itself is read from the world of the tile manager.*/
 	private void loadCollisions() {
 
-		collisionMap = new int[gamePanel.maxWorldRow][gamePanel.maxWorldCol];
-
-		// Loading collision map
-		try {
-			InputStream is = getClass().getResourceAsStream("/main/res/maps/Map3/Map_3_Collisions.csv");
-			assert is != null;
-			BufferedReader br = new BufferedReader(new InputStreamReader(is));
-
-			for (int row = 0; row < gamePanel.maxWorldRow; row++) {
-				String line = br.readLine();
-				String[] numbers = line.split(",");
-
-				for (int col = 0; col < gamePanel.maxWorldCol; col++) {
-					int tileNum = Integer.parseInt(numbers[col]);
-					collisionMap[row][col] = tileNum;
-				}
-			}
-		} catch (Exception e) {
-			GamePanel.logger.log(Level.SEVERE, "Failed Loading Collisions", e);
-		}
-
 		// Custom main.collisions
 		collisions = new Rectangle[16];
 
@@ -91,7 +67,8 @@ public class CollisionChecker {
 
 	/** Checks for main.collisions between an entity and the two tiles
 	 * in the direction it is moving in. If a collision is detected
-	 * collisionOn is set to true for that entity.*/
+	 * collisionOn is set to true for that entity. Only the entity is
+	 * modified, so enemies can check their main.collisions in parallel.*/
 	public void checkTileCollision(Entity entity) {
 
 		// Calculating the four edges of the collision box
@@ -106,79 +83,41 @@ public class CollisionChecker {
 		int topRow = collisionTopBound / gamePanel.tileSize;
 		int bottomRow = collisionBottomBound / gamePanel.tileSize;
 
-		tile1Collision = new Rectangle();
-		tile2Collision = new Rectangle();
+		WorldMap world = gamePanel.tileManager.world;
+		Rectangle tile1Collision = new Rectangle();
+		Rectangle tile2Collision = new Rectangle();
 		Rectangle entityCollision = new Rectangle();
-		Rectangle collision;
 		switch (entity.direction) {
-		case "up":
+		case UP:
 			topRow = (collisionTopBound - entity.speed) / gamePanel.tileSize;
-			if (collisionMap[topRow][leftCol] != -1) {
-				collision = collisions[collisionMap[topRow][leftCol]];
-				tile1Collision = new Rectangle(collision);
-				tile1Collision.setLocation(leftCol * gamePanel.tileSize + collision.x,
-						topRow * gamePanel.tileSize + collision.y);
-			}
-
-			if (collisionMap[topRow][rightCol] != -1) {
-				collision = collisions[collisionMap[topRow][rightCol]];
-				tile2Collision = new Rectangle(collision);
-				tile2Collision.setLocation(rightCol * gamePanel.tileSize + collision.x,
-						topRow * gamePanel.tileSize + collision.y);
-			}
+			tile1Collision = tileCollision(world, topRow, leftCol);
+			tile2Collision = tileCollision(world, topRow, rightCol);
 
 			entityCollision = new Rectangle(entity.worldX + entity.collisionBox.x,
 					entity.worldY + entity.collisionBox.y - entity.speed, entity.collisionBox.width,
 					entity.collisionBox.height);
 			break;
-		case "down":
+		case DOWN:
 			bottomRow = (collisionBottomBound + entity.speed) / gamePanel.tileSize;
-			if (collisionMap[bottomRow][leftCol] != -1) {
-				collision = collisions[collisionMap[bottomRow][leftCol]];
-				tile1Collision = new Rectangle(leftCol * gamePanel.tileSize + collision.x,
-						bottomRow * gamePanel.tileSize + collision.y, collision.width, collision.height);
-			}
-
-			if (collisionMap[bottomRow][rightCol] != -1) {
-				collision = collisions[collisionMap[bottomRow][rightCol]];
-				tile2Collision = new Rectangle(rightCol * gamePanel.tileSize + collision.x,
-						bottomRow * gamePanel.tileSize + collision.y, collision.width, collision.height);
-			}
+			tile1Collision = tileCollision(world, bottomRow, leftCol);
+			tile2Collision = tileCollision(world, bottomRow, rightCol);
 
 			entityCollision = new Rectangle(entity.worldX + entity.collisionBox.x,
 					entity.worldY + entity.collisionBox.y + entity.speed, entity.collisionBox.width,
 					entity.collisionBox.height);
 			break;
-		case "left":
+		case LEFT:
 			leftCol = (collisionLeftBound - entity.speed) / gamePanel.tileSize;
-			if (collisionMap[bottomRow][leftCol] != -1) {
-				collision = collisions[collisionMap[bottomRow][leftCol]];
-				tile1Collision = new Rectangle(leftCol * gamePanel.tileSize + collision.x,
-						bottomRow * gamePanel.tileSize + collision.y, collision.width, collision.height);
-			}
-
-			if (collisionMap[topRow][leftCol] != -1) {
-				collision = collisions[collisionMap[topRow][leftCol]];
-				tile2Collision = new Rectangle(leftCol * gamePanel.tileSize + collision.x,
-						topRow * gamePanel.tileSize + collision.y, collision.width, collision.height);
-			}
+			tile1Collision = tileCollision(world, bottomRow, leftCol);
+			tile2Collision = tileCollision(world, topRow, leftCol);
 
 			entityCollision = new Rectangle(entity.worldX + entity.collisionBox.x - entity.speed,
 					entity.worldY + entity.collisionBox.y, entity.collisionBox.width, entity.collisionBox.height);
 			break;
-		case "right":
+		case RIGHT:
 			rightCol = (collisionRightBound + entity.speed) / gamePanel.tileSize;
-			if (collisionMap[topRow][rightCol] != -1) {
-				collision = collisions[collisionMap[topRow][rightCol]];
-				tile1Collision = new Rectangle(rightCol * gamePanel.tileSize + collision.x,
-						topRow * gamePanel.tileSize + collision.y, collision.width, collision.height);
-			}
-
-			if (collisionMap[bottomRow][rightCol] != -1) {
-				collision = collisions[collisionMap[bottomRow][rightCol]];
-				tile2Collision = new Rectangle(rightCol * gamePanel.tileSize + collision.x,
-						bottomRow * gamePanel.tileSize + collision.y, collision.width, collision.height);
-			}
+			tile1Collision = tileCollision(world, topRow, rightCol);
+			tile2Collision = tileCollision(world, bottomRow, rightCol);
 
 			entityCollision = new Rectangle(entity.worldX + entity.collisionBox.x + entity.speed,
 					entity.worldY + entity.collisionBox.y, entity.collisionBox.width, entity.collisionBox.height);
@@ -186,6 +125,24 @@ public class CollisionChecker {
 		}
 
 		entity.collisionOn = entityCollision.intersects(tile1Collision) || entityCollision.intersects(tile2Collision);
+
+		// The tiles faced by the player are kept for debugging
+		if (entity == gamePanel.player) {
+			this.tile1Collision = tile1Collision;
+			this.tile2Collision = tile2Collision;
+		}
+	}
+
+	/** Returns the collision of a tile placed at its position in the
+	 * world, or an empty rectangle if the tile has no collision.*/
+	private Rectangle tileCollision(WorldMap world, int row, int col) {
+		int shape = world.getCollision(row, col);
+		if (shape == -1) {
+			return new Rectangle();
+		}
+		Rectangle collision = collisions[shape];
+		return new Rectangle(col * gamePanel.tileSize + collision.x, row * gamePanel.tileSize + collision.y,
+				collision.width, collision.height);
 	}
 
 	/** Checks for main.collisions with main.assets, in order
@@ -200,51 +157,16 @@ public class CollisionChecker {
 				gamePanel.assets[i].solidArea.x = gamePanel.assets[i].worldX + gamePanel.assets[i].solidArea.x;
 				gamePanel.assets[i].solidArea.y = gamePanel.assets[i].worldY + gamePanel.assets[i].solidArea.y;
 
-				switch (entity.direction) {
-				case "up":
-					entity.collisionBox.y -= entity.speed;
-					if (entity.collisionBox.intersects(gamePanel.assets[i].solidArea)) {
-						if (gamePanel.assets[i].collision) {
-							entity.collisionOn = true;
-						}
-						if (player) {
-							index = i;
-						}
-					}
-					break;
-				case "down":
-					entity.collisionBox.y += entity.speed;
-					if (entity.collisionBox.intersects(gamePanel.assets[i].solidArea)) {
-						if (gamePanel.assets[i].collision) {
-							entity.collisionOn = true;
-						}
-						if (player) {
-							index = i;
-						}
+				// One step ahead in the direction the entity is facing
+				entity.collisionBox.x += entity.direction.dx * entity.speed;
+				entity.collisionBox.y += entity.direction.dy * entity.speed;
+				if (entity.collisionBox.intersects(gamePanel.assets[i].solidArea)) {
+					if (gamePanel.assets[i].collision) {
+						entity.collisionOn = true;
 					}
-					break;
-				case "left":
-					entity.collisionBox.x -= entity.speed;
-					if (entity.collisionBox.intersects(gamePanel.assets[i].solidArea)) {
-						if (gamePanel.assets[i].collision) {
-							entity.collisionOn = true;
-						}
-						if (player) {
-							index = i;
-						}
+					if (player) {
+						index = i;
 					}
-					break;
-				case "right":
-					entity.collisionBox.x += entity.speed;
-					if (entity.collisionBox.intersects(gamePanel.assets[i].solidArea)) {
-						if (gamePanel.assets[i].collision) {
-							entity.collisionOn = true;
-						}
-						if (player) {
-							index = i;
-						}
-					}
-					break;
 				}
 				entity.collisionBox.x = entity.collisionBoxDefaultX;
 				entity.collisionBox.y = entity.collisionBoxDefaultY;
@@ -259,7 +181,7 @@ public class CollisionChecker {
 	 * @returns true if asset is readable from current entity position.*/
 	public boolean isPlayerAbleToRead(Entity player, SuperAsset asset) {
 		boolean isAble = false;
-		if (player.direction.equals("up")) {
+		if (player.direction == Direction.UP) {
 			// Ajusta las coordenadas de los cuadros de colisión basándote en las posiciones
 			// en el mundo del objeto y el jugador
 			player.collisionBox.x = player.worldX + player.collisionBox.x;
@@ -289,51 +211,16 @@ public class CollisionChecker {
 				entity.collisionBox.y = entity.worldY + entity.collisionBox.y;
 				gamePanel.items[i].solidArea.x = gamePanel.items[i].worldX + gamePanel.items[i].solidArea.x;
 				gamePanel.items[i].solidArea.y = gamePanel.items[i].worldY + gamePanel.items[i].solidArea.y;
-				switch (entity.direction) {
-				case "up":
-					entity.collisionBox.y -= entity.speed;
-					if (entity.collisionBox.intersects(gamePanel.items[i].solidArea)) {
-						if (gamePanel.items[i].collision) {
-							entity.collisionOn = true;
-						}
-						if (player) {
-							index = i;
-						}
-					}
-					break;
-				case "down":
-					entity.collisionBox.y += entity.speed;
-					if (entity.collisionBox.intersects(gamePanel.items[i].solidArea)) {
-						if (gamePanel.items[i].collision) {
-							entity.collisionOn = true;
-						}
-						if (player) {
-							index = i;
-						}
-					}
-					break;
-				case "left":
-					entity.collisionBox.x -= entity.speed;
-					if (entity.collisionBox.intersects(gamePanel.items[i].solidArea)) {
-						if (gamePanel.items[i].collision) {
-							entity.collisionOn = true;
-						}
-						if (player) {
-							index = i;
-						}
+				// One step ahead in the direction the entity is facing
+				entity.collisionBox.x += entity.direction.dx * entity.speed;
+				entity.collisionBox.y += entity.direction.dy * entity.speed;
+				if (entity.collisionBox.intersects(gamePanel.items[i].solidArea)) {
+					if (gamePanel.items[i].collision) {
+						entity.collisionOn = true;
 					}
-					break;
-				case "right":
-					entity.collisionBox.x += entity.speed;
-					if (entity.collisionBox.intersects(gamePanel.items[i].solidArea)) {
-						if (gamePanel.items[i].collision) {
-							entity.collisionOn = true;
-						}
-						if (player) {
-							index = i;
-						}
+					if (player) {
+						index = i;
 					}
-					break;
 				}
 				entity.collisionBox.x = entity.collisionBoxDefaultX;
 				entity.collisionBox.y = entity.collisionBoxDefaultY;
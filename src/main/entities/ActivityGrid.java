@@ -0,0 +1,154 @@
+package main.entities;
+
+import java.util.ArrayList;
+
+/** Spatial index that decides which entities are updated each tick.
+ * The world is split into square regions, and every entity is kept in
+ * the bucket of the region it is in. Entities in the regions around the
+ * player are active and updated every tick, the ones in the next ring
+ * are updated at a reduced rate, and the rest sleep until the player gets
+ * close. The active lists are only rebuilt when the player or an active
+ * entity changes region, so the cost of a tick depends on what's around
+ * the player instead of the size of the world population.*/
+public class ActivityGrid {
+
+    public final int REGION_TILES = 8; // Size of a region in tiles
+    public final int ACTIVE_RADIUS = 2; // Regions around the player updated every tick
+    public final int COARSE_RADIUS = 3; // Regions around the player updated at a reduced rate
+    public final int COARSE_INTERVAL = 4; // Ticks between updates of the coarse ring
+
+    private final int regionSize;
+    private final int cols;
+    private final int rows;
+    private final ArrayList<ArrayList<Entity>> buckets;
+
+    private final ArrayList<Entity> active = new ArrayList<>();
+    private final ArrayList<Entity> coarse = new ArrayList<>();
+    private int playerRegion = -1;
+    private boolean dirty = true;
+    private int tick = 0;
+
+    /** Creates an ActivityGrid covering the world.
+     * @param worldCols Width of the world in tiles.
+     * @param worldRows Height of the world in tiles.
+     * @param tileSize Size of a tile in pixels.*/
+    public ActivityGrid(int worldCols, int worldRows, int tileSize) {
+        this.regionSize = REGION_TILES * tileSize;
+        this.cols = (worldCols + REGION_TILES - 1) / REGION_TILES;
+        this.rows = (worldRows + REGION_TILES - 1) / REGION_TILES;
+
+        buckets = new ArrayList<>(cols * rows);
+        for(int i = 0; i < cols * rows; i++) {
+            buckets.add(new ArrayList<>());
+        }
+    }
+
+    /** Inserts an entity in the bucket of its region.
+     * @param entity Entity to add.*/
+    public void add(Entity entity) {
+        entity.region = regionOf(entity.worldX, entity.worldY);
+        buckets.get(entity.region).add(entity);
+        dirty = true;
+    }
+
+    /** Removes an entity from the grid.
+     * @param entity Entity to remove.*/
+    public void remove(Entity entity) {
+        if(entity.region != -1) {
+            buckets.get(entity.region).remove(entity);
+            entity.region = -1;
+            dirty = true;
+        }
+    }
+
+    /** Moves an entity to another bucket if it changed region since
+     * the last time it was checked.
+     * @param entity Entity that may have moved.*/
+    public void moved(Entity entity) {
+        int region = regionOf(entity.worldX, entity.worldY);
+        if(region != entity.region) {
+            remove(entity);
+            entity.region = region;
+            buckets.get(region).add(entity);
+        }
+    }
+
+    /** Removes every entity from the grid.*/
+    public void clear() {
+        for(ArrayList<Entity> bucket : buckets) {
+            for(Entity entity : bucket) {
+                entity.region = -1;
+            }
+            bucket.clear();
+        }
+        active.clear();
+        coarse.clear();
+        dirty = true;
+    }
+
+    /** Advances one tick, rebuilding the active and coarse lists
+     * if the player or any entity changed region.
+     * @param player Player, the center of the active area.*/
+    public void refresh(Entity player) {
+        tick++;
+
+        int region = regionOf(player.worldX, player.worldY);
+        if(region != playerRegion) {
+            playerRegion = region;
+            dirty = true;
+        }
+
+        if(!dirty) {
+            return;
+        }
+
+        active.clear();
+        coarse.clear();
+
+        int centerCol = playerRegion % cols;
+        int centerRow = playerRegion / cols;
+        for(int row = Math.max(0, centerRow - COARSE_RADIUS); row <= Math.min(rows - 1, centerRow + COARSE_RADIUS); row++) {
+            for(int col = Math.max(0, centerCol - COARSE_RADIUS); col <= Math.min(cols - 1, centerCol + COARSE_RADIUS); col++) {
+                int ring = Math.max(Math.abs(row - centerRow), Math.abs(col - centerCol));
+                ArrayList<Entity> bucket = buckets.get(row * cols + col);
+                for(Entity entity : bucket) {
+                    if(entity == player) {
+                        continue;
+                    }
+                    if(ring <= ACTIVE_RADIUS) {
+                        active.add(entity);
+                    } else {
+                        coarse.add(entity);
+                    }
+                }
+            }
+        }
+
+        dirty = false;
+    }
+
+    /** Returns the entities that must be updated every tick.*/
+    public ArrayList<Entity> getActive() {
+        return active;
+    }
+
+    /** Returns the entities updated at a reduced rate.*/
+    public ArrayList<Entity> getCoarse() {
+        return coarse;
+    }
+
+    /** Returns true if the coarse ring has to be updated this tick.*/
+    public boolean isCoarseTick() {
+        return tick % COARSE_INTERVAL == 0;
+    }
+
+    /** Returns the index of the region containing a point, clamped
+     * to the bounds of the grid.
+     * @param worldX X coordinate in the world.
+     * @param worldY Y coordinate in the world.*/
+    private int regionOf(int worldX, int worldY) {
+        int col = Math.min(Math.max(worldX / regionSize, 0), cols - 1);
+        int row = Math.min(Math.max(worldY / regionSize, 0), rows - 1);
+        return row * cols + col;
+    }
+}
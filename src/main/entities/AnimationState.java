@@ -0,0 +1,9 @@
+package main.entities;
+
+/** Animation states of an entity, in the same order
+ * as the sprite sheets of a SpriteSet.*/
+public enum AnimationState {
+    IDLE,
+    RUN,
+    ATTACK
+}
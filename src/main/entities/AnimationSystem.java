@@ -0,0 +1,29 @@
+package main.entities;
+
+/** Advances the animation counters of the active AI driven entities,
+ * looping through the steps of their sprite sheets.*/
+public class AnimationSystem extends EntitySystem {
+
+    private final int animationFrames;
+
+    /** Creates an AnimationSystem.
+     * @param animationFrames Frames per animation step.*/
+    public AnimationSystem(int animationFrames) {
+        super(EntityStore.SPRITE | EntityStore.AI, EntityStore.ACTIVE);
+        this.animationFrames = animationFrames;
+    }
+
+    @Override
+    protected void process(EntityStore store, int slot) {
+        store.spriteCounter[slot]++;
+
+        if(store.spriteCounter[slot] > animationFrames) {
+            if(store.spriteNum[slot] < SpriteSet.STEPS) {
+                store.spriteNum[slot]++;
+            } else {
+                store.spriteNum[slot] = 1;
+            }
+            store.spriteCounter[slot] = 0;
+        }
+    }
+}
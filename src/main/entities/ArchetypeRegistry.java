@@ -0,0 +1,89 @@
+package main.entities;
+
+import main.GamePanel;
+
+import java.awt.*;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.HashMap;
+import java.util.logging.Level;
+
+/** Registry of the enemy archetypes, loaded once at startup from
+ * /main/res/entities/archetypes.csv. Lines starting with # are comments.*/
+public class ArchetypeRegistry {
+
+    public static final String DEFAULT_ID = "enemy";
+
+    // Used if the definition file doesn't define the default archetype
+    private static final EnemyArchetype FALLBACK =
+            new EnemyArchetype(DEFAULT_ID, "enemy", 2, 100, 10, 12, 1, 25, new Rectangle(11, 22, 42, 42));
+
+    private final HashMap<String, EnemyArchetype> archetypes = new HashMap<>();
+
+    /** Creates an ArchetypeRegistry with the archetypes of the definition file.*/
+    public ArchetypeRegistry() {
+        this("/main/res/entities/archetypes.csv");
+    }
+
+    /** Creates an ArchetypeRegistry with the archetypes of a given definition file.
+     * @param path Path to the definition file in the classpath.*/
+    public ArchetypeRegistry(String path) {
+        archetypes.put(DEFAULT_ID, FALLBACK);
+        load(path);
+    }
+
+    /** Returns the archetype with a given id.
+     * @param id Id of the archetype.
+     * @return the archetype, or the default one if the id is unknown.*/
+    public EnemyArchetype get(String id) {
+        EnemyArchetype archetype = id == null ? null : archetypes.get(id);
+        return archetype == null ? getDefault() : archetype;
+    }
+
+    /** Returns the default archetype.*/
+    public EnemyArchetype getDefault() {
+        return archetypes.get(DEFAULT_ID);
+    }
+
+    /** Returns true if an archetype with the given id is defined.
+     * @param id Id of the archetype.*/
+    public boolean contains(String id) {
+        return archetypes.containsKey(id);
+    }
+
+    /** Returns the amount of archetypes defined.*/
+    public int size() {
+        return archetypes.size();
+    }
+
+    /** Loads the archetypes of a definition file. Malformed lines
+     * are logged and skipped.
+     * @param path Path to the definition file in the classpath.*/
+    private void load(String path) {
+        try (InputStream is = getClass().getResourceAsStream(path)) {
+            if(is == null) {
+                throw new IOException("Missing resource " + path);
+            }
+            BufferedReader br = new BufferedReader(new InputStreamReader(is));
+
+            String line;
+            while((line = br.readLine()) != null) {
+                line = line.trim();
+                if(line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    EnemyArchetype archetype = EnemyArchetype.parse(line);
+                    archetypes.put(archetype.id, archetype);
+                } catch(IllegalArgumentException e) {
+                    GamePanel.logger.log(Level.WARNING, "Invalid Archetype: " + line, e);
+                }
+            }
+            GamePanel.logger.log(Level.INFO, "Archetypes Loaded: " + archetypes.size());
+        } catch(IOException e) {
+            GamePanel.logger.log(Level.SEVERE, "Failed Loading Archetypes", e);
+        }
+    }
+}
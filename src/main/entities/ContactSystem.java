@@ -0,0 +1,48 @@
+package main.entities;
+
+/** Checks which active AI driven entities are touching a target entity
+ * (usually the player), comparing the colliders stored in the entity
+ * store without creating any Rectangle. Touching entities get the
+ * TOUCHING flag.*/
+public class ContactSystem extends EntitySystem {
+
+    private int targetLeft, targetTop, targetRight, targetBottom;
+    private boolean hasTarget = false;
+
+    /** Creates a ContactSystem.*/
+    public ContactSystem() {
+        super(EntityStore.POSITION | EntityStore.COLLIDER | EntityStore.AI, EntityStore.ACTIVE);
+    }
+
+    /** Sets the entity the contacts are checked against.
+     * @param store Store with the entities.
+     * @param handle Handle of the target.*/
+    public void setTarget(EntityStore store, int handle) {
+        hasTarget = store.contains(handle);
+        if(hasTarget) {
+            int slot = store.slotOf(handle);
+            targetLeft = store.worldX[slot] + store.colliderX[slot];
+            targetTop = store.worldY[slot] + store.colliderY[slot];
+            targetRight = targetLeft + store.colliderWidth[slot];
+            targetBottom = targetTop + store.colliderHeight[slot];
+        }
+    }
+
+    @Override
+    protected void process(EntityStore store, int slot) {
+        int left = store.worldX[slot] + store.colliderX[slot];
+        int top = store.worldY[slot] + store.colliderY[slot];
+        int right = left + store.colliderWidth[slot];
+        int bottom = top + store.colliderHeight[slot];
+
+        boolean touching = hasTarget
+                && left < targetRight && targetLeft < right
+                && top < targetBottom && targetTop < bottom;
+
+        if(touching) {
+            store.flags[slot] |= EntityStore.TOUCHING;
+        } else {
+            store.flags[slot] &= ~EntityStore.TOUCHING;
+        }
+    }
+}
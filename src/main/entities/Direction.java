@@ -0,0 +1,32 @@
+package main.entities;
+
+/** Cardinal directions an entity can face or move in. They are declared
+ * in the same order as the rows of the sprite sheets, so the ordinal is
+ * the row of the frames of that direction, and each one carries its unit
+ * step, so moving is a lookup instead of comparing strings.*/
+public enum Direction {
+
+    UP(0, -1),
+    LEFT(-1, 0),
+    RIGHT(1, 0),
+    DOWN(0, 1);
+
+    // Cached, values() creates a new array on every call
+    private static final Direction[] VALUES = values();
+
+    public final int dx;
+    public final int dy;
+    public final boolean vertical;
+
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+        this.vertical = dx == 0;
+    }
+
+    /** Returns the direction with a given ordinal.
+     * @param ordinal Ordinal of the direction, as stored in the EntityStore.*/
+    public static Direction of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
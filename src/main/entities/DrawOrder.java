@@ -0,0 +1,101 @@
+package main.entities;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.List;
+
+/** Render order of the entities, sorted by their y coordinate so the
+ * entities in front are drawn last. The order is kept between frames and
+ * repaired with an insertion sort, which only moves the entities that
+ * changed their relative position, so a frame where few entities moved
+ * costs close to a linear pass. The entity list used by the update loop
+ * is never touched.*/
+public class DrawOrder {
+
+    private Entity[] items = new Entity[64];
+    private int[] keys = new int[64];
+    private int size = 0;
+
+    /** Adds an entity to the render order.
+     * @param entity Entity to add.*/
+    public synchronized void add(Entity entity) {
+        if(size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+
+        // Placed at the end, the next sort moves it to its place
+        items[size] = entity;
+        keys[size] = entity.worldY;
+        size++;
+    }
+
+    /** Removes an entity from the render order.
+     * @param entity Entity to remove.*/
+    public synchronized void remove(Entity entity) {
+        for(int i = 0; i < size; i++) {
+            if(items[i] == entity) {
+                // Shifting keeps the rest of the order sorted
+                System.arraycopy(items, i + 1, items, i, size - i - 1);
+                System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                items[--size] = null;
+                return;
+            }
+        }
+    }
+
+    /** Replaces the content of the render order with a given entity list.
+     * @param entities Entities to draw.*/
+    public synchronized void rebuild(List<Entity> entities) {
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        for(Entity entity : entities) {
+            add(entity);
+        }
+    }
+
+    /** Returns the amount of entities in the render order.*/
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Repairs the order with the current positions of the
+     * entities and draws them from back to front.
+     * @param g2 Graphics2D object the entities will be drawn into.*/
+    public synchronized void draw(Graphics2D g2) {
+
+        for(int i = 0; i < size; i++) {
+            keys[i] = items[i].worldY;
+        }
+        sort(items, keys, size);
+
+        for(int i = 0; i < size; i++) {
+            items[i].draw(g2);
+        }
+    }
+
+    /** Stable insertion sort of items by ascending key. It runs in
+     * O(n + k), being k the amount of out of order pairs, so it is
+     * almost linear when the input is nearly sorted.
+     * @param items Items to sort.
+     * @param keys Sorting key of each item.
+     * @param size Amount of items to sort from the start of the arrays.*/
+    static <T> void sort(T[] items, int[] keys, int size) {
+        for(int i = 1; i < size; i++) {
+            int key = keys[i];
+            if(keys[i - 1] <= key) {
+                continue; // Already in place
+            }
+
+            T item = items[i];
+            int j = i - 1;
+            while(j >= 0 && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                items[j + 1] = items[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            items[j + 1] = item;
+        }
+    }
+}
@@ -3,13 +3,9 @@ package main.entities;
 import main.Drawable;
 import main.Game;
 import main.GamePanel;
-import main.Utility;
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Objects;
 import java.util.logging.Level;
 
 /** Enemy class.
@@ -18,79 +14,176 @@ public class Enemy extends Entity implements Drawable {
 
     private boolean debug = false;
     private ArrayList<PathFinder.Node> path = null;
-    private final int TRACKING_RANGE = 12; // Maximum tracking range in tiles
     private boolean changedTile = true;
 
+    // Shared definition of the type of enemy
+    public EnemyArchetype archetype;
+
+    // Aggro
+    public final int AGGRO_MEMORY = 180; // Ticks the enemy keeps chasing after losing sight of the player
+    private int aggro = 0;
+
+    // Decided by think, applied by update
+    private boolean thought = false;
+    private long distance; // Squared distance to the player
+    private int lastCol = -1, lastRow = -1; // Tile at the last think
+
     // Status
-    public int health = 100;
 	public final int I_FRAMES = 60; // invulnerability frames
 	public int i_counter = 60;
 	public boolean invulnerable = true;
 
-    /** Creates an enemy at a given position.
+    /** Creates an enemy of the default archetype at a given position.
      * @param x Position in the x axes in tiles.
      * @param y Position in the y axes in tiles.*/
     public Enemy(GamePanel gamePanel, int x, int y) {
-        super(gamePanel);
+        this(gamePanel, gamePanel.archetypeRegistry.getDefault(), x, y);
+    }
+
+    /** Creates an enemy of a given archetype at a given position.
+     * @param archetype Type of the enemy.
+     * @param x Position in the x axes in tiles.
+     * @param y Position in the y axes in tiles.*/
+    public Enemy(GamePanel gamePanel, EnemyArchetype archetype, int x, int y) {
+        this(gamePanel, archetype);
 
         worldX = gamePanel.tileSize * x;
         worldY = gamePanel.tileSize * y;
-        setDefaultValues();
         getEnemySprite();
 
-        GamePanel.logger.log(Level.INFO, "Enemy Created at " + x + ", " + y);
+        GamePanel.logger.log(Level.INFO, "Enemy Created at " + x + ", " + y + " (" + archetype.id + ")");
     }
 
-    /** Initializes the state of the enemy after creation.*/
+    /** Creates an enemy of a given archetype without sprites, which are
+     * loaded when it is materialized. Used to restore saved enemies.
+     * @param archetype Type of the enemy.*/
+    Enemy(GamePanel gamePanel, EnemyArchetype archetype) {
+        super(gamePanel);
+
+        this.archetype = archetype;
+        setDefaultValues();
+    }
+
+    /** Initializes the state of the enemy after creation
+     * with the values of its archetype.*/
     public void setDefaultValues() {
 
-        speed = 2;
-        direction = "down";
+        speed = archetype.speed;
+        health = archetype.health;
+        direction = Direction.DOWN;
         moving = true;
         attacking = false;
-        collisionBox = new Rectangle(11, 22, 42, 42);
+        if(collisionBox == null) {
+            collisionBox = new Rectangle();
+        }
+        collisionBox.setBounds(archetype.colliderX, archetype.colliderY,
+                archetype.colliderWidth, archetype.colliderHeight);
     }
 
-    /** Loads the sprite sheets of the enemy.*/
-    public void getEnemySprite() {
+    /** Brings a pooled enemy back to the state of a newly created
+     * one at a given position. The sprites are kept if the new
+     * archetype uses the same sprite set.
+     * @param archetype Type of the enemy.
+     * @param x Position in the x axes in tiles.
+     * @param y Position in the y axes in tiles.*/
+    public void reset(EnemyArchetype archetype, int x, int y) {
+        reset(archetype);
+        worldX = tileSize * x;
+        worldY = tileSize * y;
+        materialize();
+    }
 
-        // For image scaling and optimization
-        Utility util = new Utility();
+    /** Brings a pooled enemy back to the state of a newly created one,
+     * without moving it nor loading its sprites. The sprites are only
+     * kept if the new archetype uses the same sprite set.
+     * @param archetype Type of the enemy.*/
+    void reset(EnemyArchetype archetype) {
+
+        if(sprites != null && !sprites.id.equals(archetype.spriteId)) {
+            releaseSprites();
+        }
 
-        try {
-            runSprites = ImageIO.read(Objects.requireNonNull(getClass().getResourceAsStream("/main/res/enemy/run.png")));
-            runSprites = util.scaleImage(runSprites, tileSize * 4, tileSize * 4);
+        this.archetype = archetype;
+        setDefaultValues();
 
-            idleSprites = ImageIO.read(Objects.requireNonNull(getClass().getResourceAsStream("/main/res/enemy/idle.png")));
-            idleSprites = util.scaleImage(idleSprites, tileSize * 4, tileSize * 4);
+        death = false;
+        despawnPending = false;
+        saveId = 0; // A reused enemy is a new one for the saved game
+        collisionOn = false;
+        i_counter = I_FRAMES;
+        invulnerable = true;
+        spriteCounter = 0;
+        spriteNum = 1;
+        path = null;
+        changedTile = true;
+        thought = false;
+        stepping = false;
+        touching = false;
+        lastCol = -1;
+        lastRow = -1;
+        aggro = 0;
+    }
 
-            attackSprites = ImageIO.read(Objects.requireNonNull(getClass().getResourceAsStream("/main/res/enemy/attack1.png")));
-            attackSprites = util.scaleImage(attackSprites, tileSize * 4, tileSize * 4);
-        } catch(IOException e) {
-            GamePanel.logger.log(Level.SEVERE, "Failed Loading Enemy Sprites", e);
+    /** Loads the sprites of the enemy if it doesn't have them yet,
+     * i.e. when a restored enemy gets close to the player.*/
+    public void materialize() {
+        if(sprites == null) {
+            getEnemySprite();
         }
     }
 
-    /** Updates the state of the enemy. Searches for player if in range
-     * and starts tracking it.*/
-    public void update() {
+    /** Loads the sprite sheets of the enemy. The sheets are shared
+     * by all the enemies through the sprite registry.*/
+    public void getEnemySprite() {
+        acquireSprites(archetype.spriteId);
+    }
 
-        double distance = Entity.getDistance(this, gamePanel.player);
-        moving = distance > 0 && distance < tileSize * TRACKING_RANGE;
+    @Override
+    public int getComponents() {
+        return EntityStore.POSITION | EntityStore.MOTION | EntityStore.COLLIDER
+                | EntityStore.SPRITE | EntityStore.HEALTH | EntityStore.AI;
+    }
 
-        if(moving) {
+    /** Decides what the enemy does this tick: searches for the player
+     * if in range and chooses the direction to follow its path. It only
+     * reads shared state (player, map and path finder) and writes the
+     * fields of this enemy, so it can run in parallel for all enemies.*/
+    @Override
+    public void think() {
+
+        // Checking if the tile the enemy is at has changed since the last tick
+        int currentCol = worldX / tileSize;
+        int currentRow = worldY / tileSize;
+        changedTile = changedTile || (currentRow != lastRow) || (currentCol != lastCol);
+        lastCol = currentCol;
+        lastRow = currentRow;
+
+        // Squared distances avoid the square root every tick
+        distance = Entity.getDistanceSquared(this, gamePanel.player);
+        long trackingRange = (long) tileSize * archetype.trackingRange;
+        boolean inRange = distance > 0 && distance < trackingRange * trackingRange;
+        stepping = false;
+
+        // Enemies only chase a player they have seen recently, so the ones
+        // behind walls don't search for a path
+        if(inRange && gamePanel.lineOfSight.canSee(this, gamePanel.player)) {
+            changedTile = changedTile || aggro == 0; // The old path is stale
+            aggro = AGGRO_MEMORY;
+        } else if(aggro > 0) {
+            aggro--;
+        }
+        moving = inRange && aggro > 0;
 
-            // Past tile coordinates are stored to check for tile change
-			int pastCol = worldX / tileSize;
-			int pastRow = worldY / tileSize;
+        if(moving) {
 
             // Path Only calculated if player changed tile
             if (gamePanel.entityManager.playerChangedTile || changedTile) {
                 path = gamePanel.pathFinder.search(this, gamePanel.player);
+                changedTile = false;
             }
 
             if(path != null) {
-                if(path.size() < 25) {
+                if(path.size() < archetype.maxPathLength) {
                     int nextX = path.get(0).col * tileSize;
                     int nextY = path.get(0).row * tileSize;
 
@@ -102,66 +195,43 @@ public class Enemy extends Entity implements Drawable {
 
                     // Obstacle avoidance
                     if (collisionOn) {
-                        if (Objects.equals(direction, "up") || Objects.equals(direction, "down")) {
-                            if (nextX < worldX) {
-                                direction = "left";
-                            } else {
-                                direction = "right";
-                            }
+                        if (direction.vertical) {
+                            direction = nextX < worldX ? Direction.LEFT : Direction.RIGHT;
                         } else {
-                            if (nextY < worldY) {
-                                direction = "up";
-                            } else {
-                                direction = "down";
-                            }
+                            direction = nextY < worldY ? Direction.UP : Direction.DOWN;
                         }
                     }
 
-                    // Moving
-                    switch (direction) {
-                        case "up":
-                            worldY -= speed;
-                            break;
-                        case "down":
-                            worldY += speed;
-                            break;
-                        case "left":
-                            worldX -= speed;
-                            break;
-                        case "right":
-                            worldX += speed;
-                            break;
-                    }
+                    stepping = true;
                 } else {
                     moving = false;
                 }
             }
+        }
 
-            // Checking if the tile the players is at has changed
-			int currentCol = worldX / tileSize;
-			int currentRow = worldY / tileSize;
-            changedTile = (currentRow != pastRow) || (currentCol != pastCol);
+        thought = true;
+    }
+
+    /** Updates the state of the enemy, applying what was decided by
+     * think (which is run first if it wasn't already this tick). The
+     * movement, animation and contact with the player are batched by the
+     * entity systems of the EntityManager; this method attacks the
+     * player if it is close and touching the enemy.*/
+    public void update() {
 
+        if(!thought) {
+            think();
         }
+        thought = false;
 
         // Attacking
         attacking = false;
-        if(distance < tileSize) {
+        long attackRange = (long) tileSize * archetype.attackRange;
+        if(distance < attackRange * attackRange) {
             attacking = true;
-            if(collides(this, gamePanel.player)) {
-                gamePanel.player.damage(10);
-            }
-        }
-
-        spriteCounter++;
-
-        if(spriteCounter > ANIMATION_FRAMES) {
-            if(spriteNum < 4) {
-                spriteNum++;
-            } else {
-                spriteNum = 1;
+            if(touching) {
+                gamePanel.player.damage(archetype.damage);
             }
-            spriteCounter = 0;
         }
 
         // Invulnerability Frames
@@ -171,8 +241,8 @@ public class Enemy extends Entity implements Drawable {
 		}
     }
 
-    /** Subtracts the specified amount from the players' health
-	 * if the player is vulnerable. After receiving damage ane time
+    /** Subtracts the specified amount from the enemy's health
+	 * if the enemy is vulnerable. After receiving damage ane time
 	 * the player has a certain amount of invulnerability frames until
 	 * it can again receive damage.
 	 * @param damage Amount of health to subtract.*/
@@ -184,6 +254,7 @@ public class Enemy extends Entity implements Drawable {
 		}
 
 		if (health <= 0) {
+            gamePanel.currentGame.statistics.countKill(death);
             death = true;
             System.out.println("Death");
 		}
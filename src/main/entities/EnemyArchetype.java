@@ -0,0 +1,67 @@
+package main.entities;
+
+import java.awt.*;
+
+/** Immutable definition of a type of enemy: stats, sprite set, AI
+ * parameters and collider. Every enemy of the same type points to the
+ * same archetype, so spawning one only copies a reference.*/
+public class EnemyArchetype {
+
+    public final String id;
+    public final String spriteId; // Sprite set in the sprite registry
+    public final int speed;
+    public final int health;
+    public final int damage;
+    public final int trackingRange; // Maximum tracking range in tiles
+    public final int attackRange; // Distance to start attacking in tiles
+    public final int maxPathLength; // Longer paths make the enemy give up
+    public final int colliderX, colliderY, colliderWidth, colliderHeight;
+
+    /** Creates an EnemyArchetype.
+     * @param id Id of the archetype.
+     * @param spriteId Id of the sprite set of the enemy.
+     * @param speed Pixels moved per tick.
+     * @param health Initial health.
+     * @param damage Damage dealt to the player on contact.
+     * @param trackingRange Maximum tracking range in tiles.
+     * @param attackRange Distance to start attacking in tiles.
+     * @param maxPathLength Maximum length in tiles of a path to follow.
+     * @param collider Collision box relative to the position of the enemy.*/
+    public EnemyArchetype(String id, String spriteId, int speed, int health, int damage,
+                          int trackingRange, int attackRange, int maxPathLength, Rectangle collider) {
+        this.id = id;
+        this.spriteId = spriteId;
+        this.speed = speed;
+        this.health = health;
+        this.damage = damage;
+        this.trackingRange = trackingRange;
+        this.attackRange = attackRange;
+        this.maxPathLength = maxPathLength;
+        this.colliderX = collider.x;
+        this.colliderY = collider.y;
+        this.colliderWidth = collider.width;
+        this.colliderHeight = collider.height;
+    }
+
+    /** Parses an archetype from a line of the definition file:
+     * id,sprite,speed,health,damage,trackingRange,attackRange,maxPathLength,
+     * colliderX,colliderY,colliderWidth,colliderHeight
+     * @param line Line to parse.
+     * @return the parsed archetype.
+     * @throws IllegalArgumentException if the line is malformed.*/
+    public static EnemyArchetype parse(String line) {
+        String[] fields = line.split(",");
+        if(fields.length != 12) {
+            throw new IllegalArgumentException("Expected 12 fields in archetype: " + line);
+        }
+
+        int[] values = new int[10];
+        for(int i = 0; i < values.length; i++) {
+            values[i] = Integer.parseInt(fields[i + 2].trim());
+        }
+
+        return new EnemyArchetype(fields[0].trim(), fields[1].trim(),
+                values[0], values[1], values[2], values[3], values[4], values[5],
+                new Rectangle(values[6], values[7], values[8], values[9]));
+    }
+}
@@ -14,15 +14,29 @@ public abstract class Entity implements Drawable {
     final int tileSize;
 
     public boolean death = false;
+    public boolean despawnPending = false;
+
+    // Handle of the entity in the EntityStore
+    public int handle = EntityStore.NULL_HANDLE;
+
+    // Region of the entity in the ActivityGrid
+    public int region = -1;
+
+    // Identifies the entity between saves of a game (0 if never saved)
+    public int saveId = 0;
     
     public int worldX, worldY;
     public int speed;
+    public int health = 100;
 
+    public SpriteSet sprites;
     public BufferedImage idleSprites, runSprites, attackSprites;
                          
-    public String direction;
+    public Direction direction = Direction.DOWN;
 
     public boolean moving;
+    public boolean stepping; // Moves this tick (applied by the MovementSystem)
+    public boolean touching; // Touching the player (set by the ContactSystem)
     public boolean attacking;
     public boolean attackToggle;
 
@@ -43,37 +57,82 @@ public abstract class Entity implements Drawable {
         this.tileSize = gamePanel.tileSize;
     }
 
+    /** Decides the actions of the entity for the current tick, without
+     * modifying anything but the entity itself, so it can be run in
+     * parallel for many entities before update. Does nothing by default.*/
+    public void think() {
+    }
+
     /** Updates the state of the entity.*/
     public abstract void update();
 
+    /** Returns the components of the entity (EntityStore.POSITION,
+     * EntityStore.MOTION, ...), which decide the entity systems
+     * that process it.
+     * @return the component mask of the entity.*/
+    public abstract int getComponents();
+
+    /** Returns true if the entity owns all the given components.
+     * @param mask Components to check.*/
+    public boolean hasComponents(int mask) {
+        return (getComponents() & mask) == mask;
+    }
+
+    /** Subtracts health from the entity. Entities without
+     * health ignore it.
+     * @param damage Amount of health to subtract.*/
+    public void damage(int damage) {
+    }
+
     /** Draws the entity on a given Graphics2D object.
      * @param g2 Graphics2D object the entity will be drawn into.*/
     @Override
     public abstract void draw(Graphics2D g2);
 
-    /** Returns the proper spriteSheet for an entity depending
-     * on it's state and moving direction.
-     * @param direction Direction the entity is moving to.
-     * @return The spriteSheet related with the state and direction.*/
-    protected BufferedImage getSprite(String direction) {
-
-        BufferedImage spriteSheet;
-
+    /** Returns the animation state of the entity.*/
+    public AnimationState getAnimationState() {
         if(attacking) {
-            spriteSheet = attackSprites;
+            return AnimationState.ATTACK;
         } else if(moving) {
-            spriteSheet = runSprites;
+            return AnimationState.RUN;
         } else {
-            spriteSheet = idleSprites;
+            return AnimationState.IDLE;
         }
+    }
+
+    /** Returns the proper sprite for an entity depending
+     * on it's state and moving direction.
+     * @param direction Direction the entity is moving to.
+     * @return The sprite related with the state, direction and animation step.*/
+    protected BufferedImage getSprite(Direction direction) {
+
+        if(sprites == null || direction == null) {
+            return null;
+        }
+        return sprites.getFrame(getAnimationState(), direction, spriteNum - 1);
+    }
 
-        return switch (direction) {
-            case "up" -> spriteSheet.getSubimage((spriteNum - 1) * tileSize, 0, tileSize, tileSize);
-            case "left" -> spriteSheet.getSubimage((spriteNum - 1) * tileSize, tileSize, tileSize, tileSize);
-            case "right" -> spriteSheet.getSubimage((spriteNum - 1) * tileSize, tileSize * 2, tileSize, tileSize);
-            case "down" -> spriteSheet.getSubimage((spriteNum - 1) * tileSize, tileSize * 3, tileSize, tileSize);
-            default -> null;
-        };
+    /** Takes a shared sprite set from the sprite registry and
+     * uses it as the sprite sheets of the entity.
+     * @param id Id of the sprite set.*/
+    protected void acquireSprites(String id) {
+        releaseSprites();
+        sprites = gamePanel.spriteRegistry.acquire(id);
+        idleSprites = sprites.idleSprites;
+        runSprites = sprites.runSprites;
+        attackSprites = sprites.attackSprites;
+    }
+
+    /** Gives back the sprite set of the entity to the sprite
+     * registry, so it can be freed when nobody else uses it.*/
+    public void releaseSprites() {
+        if(sprites != null) {
+            gamePanel.spriteRegistry.release(sprites.id);
+            sprites = null;
+            idleSprites = null;
+            runSprites = null;
+            attackSprites = null;
+        }
     }
 
     /** Returns a vector between two main.entities.
@@ -114,17 +173,17 @@ public abstract class Entity implements Drawable {
      * @param ent1 First entity.
      * @param ent2 Second entity.
      * @return direction ent2 is at from ent1's perspective .*/
-    protected static String getDirection(Entity ent1, Entity ent2) {
+    protected static Direction getDirection(Entity ent1, Entity ent2) {
         double angle = getAngle(ent1, ent2);
 
         if(angle >= 45 && angle < 135) {
-            return "right";
+            return Direction.RIGHT;
         } else if(angle >= 135 || angle < -135) {
-            return "down";
+            return Direction.DOWN;
         } else if(angle >= -135 && angle < -45) {
-            return "left";
+            return Direction.LEFT;
         } else {
-            return "up";
+            return Direction.UP;
         }
     }
 
@@ -133,17 +192,17 @@ public abstract class Entity implements Drawable {
      * @param ent Entity.
      * @param node Node.
      * @return direction node is at from ent1's perspective .*/
-    protected static String getDirection(Entity ent, PathFinder.Node node) {
+    protected static Direction getDirection(Entity ent, PathFinder.Node node) {
         double angle = getAngle(ent, node);
 
         if(angle >= 45 && angle < 135) {
-            return "right";
+            return Direction.RIGHT;
         } else if(angle >= 135 || angle < -135) {
-            return "down";
+            return Direction.DOWN;
         } else if(angle >= -135 && angle < -45) {
-            return "left";
+            return Direction.LEFT;
         } else {
-            return "up";
+            return Direction.UP;
         }
     }
 
@@ -156,6 +215,17 @@ public abstract class Entity implements Drawable {
         return Math.sqrt(vector[0] * vector[0] + vector[1] * vector[1]);
     }
 
+    /** Returns the squared Euclidean distance between two main.entities.
+     * Cheaper than getDistance, useful for comparing against a range.
+     * @param ent1 First entity.
+     * @param ent2 Second entity.
+     * @return squared Euclidean distance between ent1 and ent2.*/
+    protected static long getDistanceSquared(Entity ent1, Entity ent2) {
+        long dx = ent2.worldX - ent1.worldX;
+        long dy = ent1.worldY - ent2.worldY;
+        return dx * dx + dy * dy;
+    }
+
     /** Returns the Euclidean distance between an entity and a pathfinder Node.
      * @param ent Entity.
      * @param node Node.
@@ -176,10 +246,10 @@ public abstract class Entity implements Drawable {
 		// Checking if the left and right tiles under the player are prop tiles
 		// The -1 is to avoid the lower main.tile to change to the next lower one when
 		// the player is just on the top edge of the main.tile
-		int propLeft = gamePanel.tileManager.map.get(3)[(entity.worldY + tileSize - 1)
-				/ tileSize][entity.worldX / tileSize];
-		int propRight = gamePanel.tileManager.map.get(3)[(entity.worldY + tileSize - 1)
-				/ tileSize][(entity.worldX + tileSize) / tileSize];
+		int propLeft = gamePanel.tileManager.world.getTile(3, (entity.worldY + tileSize - 1)
+				/ tileSize, entity.worldX / tileSize);
+		int propRight = gamePanel.tileManager.world.getTile(3, (entity.worldY + tileSize - 1)
+				/ tileSize, (entity.worldX + tileSize) / tileSize);
 
 		// Calculating offsets with respect to the player to redraw the tiles at that
 		// position
@@ -8,14 +8,18 @@ import java.awt.*;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.Iterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.logging.Level;
 
 /**
  * Class that manages all the main.entities inside the game.
- * 
+ * The entity list is kept in the same order as the slots of the
+ * entity store, so entities can be removed in constant time by
+ * swapping them with the last one.
+ *
  * @author david.f@opendeusto.es
  */
 public class EntityManager implements Drawable {
@@ -24,87 +28,462 @@ public class EntityManager implements Drawable {
     Player player;
 
     public ArrayList<Entity> entities;
-    public Iterator<Entity> iterator;
+    public EntityStore store;
     protected boolean playerChangedTile = true;
 
+    // Lifecycle
+    public final int MAX_POOL_SIZE = 64; // Maximum amount of idle enemies kept for reuse
+    private final ArrayDeque<Enemy> enemyPool = new ArrayDeque<>();
+    private final ArrayList<Entity> despawnQueue = new ArrayList<>();
+
+    // Drawing
+    private final DrawOrder drawOrder = new DrawOrder();
+
+    // Activity culling
+    public ActivityGrid activityGrid;
+
+    // Entity systems
+    private final MovementSystem movementSystem = new MovementSystem();
+    private final ContactSystem contactSystem = new ContactSystem();
+    private final AnimationSystem animationSystem;
+
+    // Parallel think phase
+    public final int PARALLEL_THRESHOLD = 32; // Fewer entities than this think on the game thread
+    private static final ForkJoinPool thinkPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
     /**
      * Creates an EntityManager, given a gamePanel and a Player.
-     * 
+     *
      * @param player Player.
      */
     public EntityManager(GamePanel gamePanel, Player player) {
 
         this.gamePanel = gamePanel;
         this.player = player;
+        this.animationSystem = new AnimationSystem(player.ANIMATION_FRAMES);
 
         entities = new ArrayList<>();
-        setEntities();
+        store = new EntityStore();
+        activityGrid = new ActivityGrid(gamePanel.maxWorldCol, gamePanel.maxWorldRow, gamePanel.tileSize);
+        addEntity(player);
 
     }
 
     /**
-     * Loads main.entities from file and stores player
-     * and main.entities in an entity list.
+     * Loads the enemies of a map from file and adds them to the entity
+     * list. Called by the resource loader of the GamePanel and when the
+     * player enters a map for the first time.
+     *
+     * @param path Path to the entity file of the map in the classpath.
      */
-    private void setEntities() {
-
-        // Player
-        entities.add(player);
-
-        // Enemies
+    public void loadEnemies(String path) {
         try {
-            InputStream is = getClass().getResourceAsStream("/main/res/entities/entities.csv");
+            InputStream is = getClass().getResourceAsStream(path);
             assert is != null;
             BufferedReader br = new BufferedReader(new InputStreamReader(is));
 
+            // x,y[,archetype]
             String line;
             while ((line = br.readLine()) != null) {
-                String[] cords = line.split(",");
-                entities.add(new Enemy(gamePanel,
-                        Integer.parseInt(cords[0]),
-                        Integer.parseInt(cords[1])));
+                String[] fields = line.split(",");
+                spawnEnemy(spawnArchetype(fields), Integer.parseInt(fields[0]), Integer.parseInt(fields[1]));
             }
         } catch (Exception e) {
             GamePanel.logger.log(Level.SEVERE, "failed Loading Entities", e);
         }
     }
 
+    /**
+     * Returns the archetype id of a line of an entity file,
+     * the default one if the line doesn't have it.
+     *
+     * @param fields Fields of the line (x,y[,archetype]).
+     */
+    static String spawnArchetype(String[] fields) {
+        return fields.length > 2 ? fields[2].trim() : ArchetypeRegistry.DEFAULT_ID;
+    }
+
+    /**
+     * Adds an entity to the entity list and reserves its
+     * slot in the entity store.
+     *
+     * @param entity Entity to add.
+     */
+    public void addEntity(Entity entity) {
+        entities.add(entity);
+        track(entity);
+    }
+
+    /**
+     * Returns an enemy ready to be placed in the world, reusing an
+     * idle one from the pool if possible. The enemy isn't added to
+     * the entity list.
+     *
+     * @param archetype Id of the archetype of the enemy. Unknown ids
+     *                  use the default archetype.
+     * @param x         Position in the x axes in tiles.
+     * @param y         Position in the y axes in tiles.
+     * @return a reset enemy at the given position.
+     */
+    public Enemy obtainEnemy(String archetype, int x, int y) {
+        EnemyArchetype type = gamePanel.archetypeRegistry.get(archetype);
+        Enemy enemy = enemyPool.poll();
+        if (enemy == null) {
+            return new Enemy(gamePanel, type, x, y);
+        }
+        enemy.reset(type, x, y);
+        return enemy;
+    }
+
+    /**
+     * Returns an enemy restored from a saved game, reusing an idle one
+     * from the pool if possible. Its sprites aren't loaded until it gets
+     * close to the player and is activated, so the enemies of a big
+     * saved game are restored without touching the sprite registry.
+     * The enemy isn't added to the entity list.
+     *
+     * @param archetype Type of the enemy.
+     * @param worldX    Position in the x axes in pixels.
+     * @param worldY    Position in the y axes in pixels.
+     * @return a reset enemy at the given position.
+     */
+    public Enemy restoreEnemy(EnemyArchetype archetype, int worldX, int worldY) {
+        Enemy enemy = enemyPool.poll();
+        if (enemy == null) {
+            enemy = new Enemy(gamePanel, archetype);
+        } else {
+            enemy.reset(archetype);
+        }
+        enemy.worldX = worldX;
+        enemy.worldY = worldY;
+        return enemy;
+    }
+
+    /**
+     * Spawns an enemy at a given position, reusing a pooled
+     * enemy if possible.
+     *
+     * @param archetype Id of the archetype of the enemy.
+     * @param x         Position in the x axes in tiles.
+     * @param y         Position in the y axes in tiles.
+     * @return the spawned enemy.
+     */
+    public Enemy spawnEnemy(String archetype, int x, int y) {
+        Enemy enemy = obtainEnemy(archetype, x, y);
+        addEntity(enemy);
+        return enemy;
+    }
+
+    /**
+     * Schedules an entity to be removed at the end of the current
+     * tick, so the entity list never changes while it is being updated.
+     *
+     * @param entity Entity to remove.
+     */
+    public void despawn(Entity entity) {
+        if (!entity.despawnPending && entity != player) {
+            entity.despawnPending = true;
+            despawnQueue.add(entity);
+        }
+    }
+
+    /**
+     * Gives back an enemy that isn't in the world anymore to the pool,
+     * so the next spawn doesn't have to create a new one.
+     *
+     * @param enemy Enemy to recycle.
+     */
+    public void recycle(Enemy enemy) {
+        if (enemyPool.size() < MAX_POOL_SIZE) {
+            enemyPool.push(enemy);
+        } else {
+            enemy.releaseSprites();
+        }
+    }
+
+    /**
+     * Creates enemies in advance so that spawning waves
+     * don't allocate in the middle of a fight.
+     *
+     * @param count Amount of idle enemies the pool should have.
+     */
+    public void prewarm(int count) {
+        count = Math.min(count, MAX_POOL_SIZE);
+        while (enemyPool.size() < count) {
+            enemyPool.push(new Enemy(gamePanel, 0, 0));
+        }
+    }
+
+    /**
+     * Takes every entity but the player out of the world, and rebuilds
+     * the activity grid for a world of a new size. Used when the player
+     * enters another map, so the entities of the map it leaves can be
+     * added back when it returns.
+     *
+     * @param worldCols Width of the new world in tiles.
+     * @param worldRows Height of the new world in tiles.
+     * @return the entities taken out of the world.
+     */
+    public ArrayList<Entity> changeWorld(int worldCols, int worldRows) {
+        flushDespawns();
+
+        ArrayList<Entity> removed = new ArrayList<>();
+        for (Entity entity : entities) {
+            if (entity != player) {
+                entity.handle = EntityStore.NULL_HANDLE;
+                entity.region = -1;
+                removed.add(entity);
+            }
+        }
+
+        entities.clear();
+        store.clear();
+        activityGrid = new ActivityGrid(worldCols, worldRows, gamePanel.tileSize);
+        drawOrder.rebuild(entities);
+        player.handle = EntityStore.NULL_HANDLE;
+        addEntity(player);
+
+        return removed;
+    }
+
+    /** Returns the amount of idle enemies in the pool. */
+    public int getPoolSize() {
+        return enemyPool.size();
+    }
+
     public void updateEntities(Game game) {
-        this.entities = game.entities;
+        if (this.entities != game.entities) {
+            this.entities = game.entities;
+
+            // The store, render order and activity grid are rebuilt for the new entity list
+            store.clear();
+            activityGrid.clear();
+            for (Entity entity : entities) {
+                entity.handle = store.create();
+                store.write(entity.handle, entity);
+                if (entity != player) {
+                    activityGrid.add(entity);
+                }
+            }
+            drawOrder.rebuild(entities);
+        }
     }
 
-    /** Updates all the main.entities in the entity list. */
+    /**
+     * Updates the player and the entities around it. Entities far
+     * from the player sleep in the activity grid, and the ones at
+     * mid range are updated at a reduced rate.
+     * The entities are updated in phases: first every entity thinks in
+     * parallel, reading the shared state (player, map) and deciding what
+     * to do. Then the entity systems move, animate and check contacts
+     * of all of them in batched passes over the entity store, and finally
+     * the result is applied to each entity one by one on the game thread,
+     * so it is the same as a serial update.
+     */
     public void update() {
-        iterator = entities.iterator();
-        while(iterator.hasNext()){
-            Entity entity = iterator.next();
-            if(!entity.death) {
+
+        gamePanel.currentGame.statistics.ticksPlayed++;
+
+        // Entities added straight to the list (i.e. by a loaded game)
+        for (int i = store.size(); i < entities.size(); i++) {
+            track(entities.get(i));
+        }
+        store.clearFlag(EntityStore.ACTIVE);
+
+        player.update();
+        track(player);
+
+        activityGrid.refresh(player);
+        boolean coarseTick = activityGrid.isCoarseTick();
+        gamePanel.lineOfSight.setTarget(player);
+
+        // THINK
+        think(activityGrid.getActive());
+        if (coarseTick) {
+            think(activityGrid.getCoarse());
+        }
+
+        // SYSTEMS
+        activate(activityGrid.getActive());
+        if (coarseTick) {
+            activate(activityGrid.getCoarse());
+        }
+        movementSystem.update(store);
+        contactSystem.setTarget(store, player.handle);
+        contactSystem.update(store);
+        animationSystem.update(store);
+
+        // APPLY
+        updateAll(activityGrid.getActive());
+        if (coarseTick) {
+            updateAll(activityGrid.getCoarse());
+        }
+
+        flushDespawns();
+    }
+
+    /**
+     * Copies the decisions of a list of entities into the store and
+     * marks them as active, so the entity systems process them.
+     * Restored enemies get their sprites the first time they are
+     * activated. Dead entities are scheduled for removal instead.
+     *
+     * @param list Entities updated this tick.
+     */
+    private void activate(ArrayList<Entity> list) {
+        for (int i = 0; i < list.size(); i++) {
+            Entity entity = list.get(i);
+            if (entity.death) {
+                despawn(entity);
+            } else if (!entity.despawnPending) {
+                if (entity.sprites == null && entity instanceof Enemy) {
+                    ((Enemy) entity).materialize();
+                }
+                track(entity);
+                store.setFlag(entity.handle, EntityStore.ACTIVE);
+            }
+        }
+    }
+
+    /**
+     * Runs the think phase of a list of entities, splitting the
+     * list among the threads of the pool if it is big enough.
+     *
+     * @param list Entities that have to think.
+     */
+    private void think(ArrayList<Entity> list) {
+        if (list.size() < PARALLEL_THRESHOLD) {
+            ThinkTask.thinkRange(list, 0, list.size());
+        } else {
+            thinkPool.invoke(new ThinkTask(list, 0, list.size()));
+        }
+    }
+
+    /**
+     * Reads back the state computed by the entity systems into a list
+     * of active entities and updates them.
+     *
+     * @param list Entities to update.
+     */
+    private void updateAll(ArrayList<Entity> list) {
+        for (int i = 0; i < list.size(); i++) {
+            Entity entity = list.get(i);
+            if (!entity.despawnPending) {
+                store.read(entity.handle, entity);
                 entity.update();
+                track(entity);
+                activityGrid.moved(entity);
+            }
+        }
+    }
+
+    /**
+     * Removes the entities scheduled for removal. Each one is
+     * swapped with the last entity in the list and the store.
+     */
+    private void flushDespawns() {
+        for (int i = 0; i < despawnQueue.size(); i++) {
+            Entity entity = despawnQueue.get(i);
+            entity.despawnPending = false;
+
+            if (store.contains(entity.handle)) {
+                int slot = store.slotOf(entity.handle);
+                int last = entities.size() - 1;
+                entities.set(slot, entities.get(last));
+                entities.remove(last);
+                untrack(entity);
             } else {
-                iterator.remove();
                 entities.remove(entity);
             }
+
+            if (entity instanceof Enemy) {
+                recycle((Enemy) entity); // Only enemies are pooled
+            }
+        }
+        despawnQueue.clear();
+    }
+
+    /**
+     * Copies the state of an entity into the entity store,
+     * reserving a slot first if the entity doesn't have one
+     * (i.e. entities added straight to the list by a loaded game).
+     *
+     * @param entity Entity to copy.
+     */
+    private void track(Entity entity) {
+        if (!store.contains(entity.handle)) {
+            entity.handle = store.create();
+            drawOrder.add(entity);
+            if (entity != player) {
+                activityGrid.add(entity);
+            }
+        }
+        store.write(entity.handle, entity);
+    }
+
+    /**
+     * Frees the slot of an entity in the entity store
+     * and takes it out of the render order.
+     *
+     * @param entity Entity to remove from the store.
+     */
+    private void untrack(Entity entity) {
+        if (store.contains(entity.handle)) {
+            store.remove(entity.handle);
+            drawOrder.remove(entity);
+            activityGrid.remove(entity);
         }
+        entity.handle = EntityStore.NULL_HANDLE;
     }
 
     /** Draws main.entities in correct order. */
     @Override
     public void draw(Graphics2D g2) {
+        drawOrder.draw(g2);
+    }
 
-        entities.sort(new Comparator<>() {
-            @Override
-            public int compare(Entity o1, Entity o2) {
-                if (o1.worldY > o2.worldY) {
-                    return 1;
-                } else {
-                    return -1;
-                }
-            }
-        });
+    /**
+     * Fork-join task running the think phase on a range of an entity list.
+     */
+    @SuppressWarnings("serial")
+    private static class ThinkTask extends RecursiveAction {
 
-        for (Entity entity : entities) {
-            entity.draw(g2);
+        private static final int BATCH_SIZE = 16; // Entities thought by a single task
+
+        private final ArrayList<Entity> list;
+        private final int from;
+        private final int to;
+
+        ThinkTask(ArrayList<Entity> list, int from, int to) {
+            this.list = list;
+            this.from = from;
+            this.to = to;
         }
 
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                thinkRange(list, from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ThinkTask(list, from, middle), new ThinkTask(list, middle, to));
+            }
+        }
+
+        /**
+         * Runs the think phase of a range of entities on the calling thread.
+         *
+         * @param list Entity list.
+         * @param from First index of the range (inclusive).
+         * @param to   Last index of the range (exclusive).
+         */
+        static void thinkRange(ArrayList<Entity> list, int from, int to) {
+            for (int i = from; i < to; i++) {
+                Entity entity = list.get(i);
+                if (!entity.death && !entity.despawnPending) {
+                    entity.think();
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,354 @@
+package main.entities;
+
+import java.util.Arrays;
+
+/** Structure-of-arrays storage for the hot state of the entities.
+ * Every entity is addressed by a stable int handle, while its data is
+ * kept packed in parallel primitive arrays, so loops over thousands of
+ * entities are linear scans instead of pointer chasing. Removing an
+ * entity moves the last one into its slot (swap-remove), so the arrays
+ * never have gaps.
+ * Each entity has a mask with the components it owns, which the entity
+ * systems use to pick the entities they process.*/
+public class EntityStore {
+
+    public static final int NULL_HANDLE = -1;
+
+    // Flags
+    public static final byte MOVING = 1;
+    public static final byte ATTACKING = 1 << 1;
+    public static final byte DEAD = 1 << 2;
+    public static final byte STEPPING = 1 << 3; // Will move this tick
+    public static final byte ACTIVE = 1 << 4; // Updated this tick
+    public static final byte TOUCHING = 1 << 5; // Colliding with the contact target
+
+    // Components
+    public static final int POSITION = 1;
+    public static final int MOTION = 1 << 1;
+    public static final int COLLIDER = 1 << 2;
+    public static final int SPRITE = 1 << 3;
+    public static final int HEALTH = 1 << 4;
+    public static final int AI = 1 << 5;
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    // Dense data, indexed by slot
+    int[] worldX;
+    int[] worldY;
+    int[] speed;
+    int[] health;
+    int[] spriteCounter;
+    int[] spriteNum;
+    byte[] direction; // Direction ordinals
+    byte[] flags;
+    int[] components;
+    int[] colliderX;
+    int[] colliderY;
+    int[] colliderWidth;
+    int[] colliderHeight;
+
+    // Handle bookkeeping
+    private int[] slotToHandle;
+    private int[] handleToSlot;
+    private int[] freeHandles;
+    private int freeCount = 0;
+    private int handleCount = 0;
+    private int size = 0;
+
+    /** Creates an empty EntityStore.*/
+    public EntityStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /** Creates an empty EntityStore with room for a given amount of entities.
+     * @param capacity Initial capacity of the store.*/
+    public EntityStore(int capacity) {
+        capacity = Math.max(capacity, 1);
+
+        worldX = new int[capacity];
+        worldY = new int[capacity];
+        speed = new int[capacity];
+        health = new int[capacity];
+        spriteCounter = new int[capacity];
+        spriteNum = new int[capacity];
+        direction = new byte[capacity];
+        flags = new byte[capacity];
+        components = new int[capacity];
+        colliderX = new int[capacity];
+        colliderY = new int[capacity];
+        colliderWidth = new int[capacity];
+        colliderHeight = new int[capacity];
+
+        slotToHandle = new int[capacity];
+        handleToSlot = new int[capacity];
+        freeHandles = new int[capacity];
+        Arrays.fill(handleToSlot, -1);
+    }
+
+    /** Reserves a slot for a new entity.
+     * @return the handle of the new entity. It stays valid until
+     * the entity is removed, even if other entities are removed.*/
+    public int create() {
+
+        if(size == worldX.length) {
+            grow();
+        }
+
+        int handle;
+        if(freeCount > 0) {
+            handle = freeHandles[--freeCount];
+        } else {
+            handle = handleCount++;
+        }
+
+        int slot = size++;
+        slotToHandle[slot] = handle;
+        handleToSlot[handle] = slot;
+
+        // Clearing leftovers of a previously removed entity
+        worldX[slot] = 0;
+        worldY[slot] = 0;
+        speed[slot] = 0;
+        health[slot] = 0;
+        spriteCounter[slot] = 0;
+        spriteNum[slot] = 1;
+        direction[slot] = (byte) Direction.DOWN.ordinal();
+        flags[slot] = 0;
+        components[slot] = 0;
+        colliderX[slot] = 0;
+        colliderY[slot] = 0;
+        colliderWidth[slot] = 0;
+        colliderHeight[slot] = 0;
+
+        return handle;
+    }
+
+    /** Removes an entity from the store. The last entity is moved into
+     * the freed slot, so only its slot index changes, never its handle.
+     * @param handle Handle of the entity to remove.*/
+    public void remove(int handle) {
+
+        int slot = slotOf(handle);
+        int last = --size;
+
+        if(slot != last) {
+            worldX[slot] = worldX[last];
+            worldY[slot] = worldY[last];
+            speed[slot] = speed[last];
+            health[slot] = health[last];
+            spriteCounter[slot] = spriteCounter[last];
+            spriteNum[slot] = spriteNum[last];
+            direction[slot] = direction[last];
+            flags[slot] = flags[last];
+            components[slot] = components[last];
+            colliderX[slot] = colliderX[last];
+            colliderY[slot] = colliderY[last];
+            colliderWidth[slot] = colliderWidth[last];
+            colliderHeight[slot] = colliderHeight[last];
+
+            int movedHandle = slotToHandle[last];
+            slotToHandle[slot] = movedHandle;
+            handleToSlot[movedHandle] = slot;
+        }
+
+        handleToSlot[handle] = -1;
+        freeHandles[freeCount++] = handle;
+    }
+
+    /** Removes every entity from the store.*/
+    public void clear() {
+        Arrays.fill(handleToSlot, -1);
+        size = 0;
+        freeCount = 0;
+        handleCount = 0;
+    }
+
+    /** Copies the hot state of an entity into its slot. The ACTIVE
+     * flag is kept, since it is managed by the entity manager.
+     * @param handle Handle of the entity in the store.
+     * @param entity Entity to read the state from.*/
+    public void write(int handle, Entity entity) {
+
+        int slot = slotOf(handle);
+
+        worldX[slot] = entity.worldX;
+        worldY[slot] = entity.worldY;
+        speed[slot] = entity.speed;
+        health[slot] = entity.health;
+        spriteCounter[slot] = entity.spriteCounter;
+        spriteNum[slot] = entity.spriteNum;
+        direction[slot] = (byte) entity.direction.ordinal();
+        components[slot] = entity.getComponents();
+
+        if(entity.collisionBox != null) {
+            colliderX[slot] = entity.collisionBox.x;
+            colliderY[slot] = entity.collisionBox.y;
+            colliderWidth[slot] = entity.collisionBox.width;
+            colliderHeight[slot] = entity.collisionBox.height;
+        }
+
+        byte f = (byte) (flags[slot] & ACTIVE);
+        if(entity.moving) f |= MOVING;
+        if(entity.attacking) f |= ATTACKING;
+        if(entity.death) f |= DEAD;
+        if(entity.stepping) f |= STEPPING;
+        if(entity.touching) f |= TOUCHING;
+        flags[slot] = f;
+    }
+
+    /** Copies back to an entity the state modified by the
+     * entity systems (position, animation and contact).
+     * @param handle Handle of the entity in the store.
+     * @param entity Entity to write the state into.*/
+    public void read(int handle, Entity entity) {
+
+        int slot = slotOf(handle);
+
+        entity.worldX = worldX[slot];
+        entity.worldY = worldY[slot];
+        entity.spriteCounter = spriteCounter[slot];
+        entity.spriteNum = spriteNum[slot];
+        entity.touching = (flags[slot] & TOUCHING) != 0;
+    }
+
+    /** Returns true if the handle refers to an entity in the store.
+     * @param handle Handle to check.*/
+    public boolean contains(int handle) {
+        return handle >= 0 && handle < handleToSlot.length && handleToSlot[handle] != -1;
+    }
+
+    /** Returns the amount of entities in the store.*/
+    public int size() {
+        return size;
+    }
+
+    /** Returns the current slot of an entity. Slots change when other
+     * entities are removed, so they must not be kept between frames.
+     * @param handle Handle of the entity.
+     * @return the slot index in the arrays of the store.*/
+    public int slotOf(int handle) {
+        if(!contains(handle)) {
+            throw new IllegalArgumentException("Invalid entity handle: " + handle);
+        }
+        return handleToSlot[handle];
+    }
+
+    /** Returns the handle of the entity stored at a given slot.
+     * @param slot Slot index, between 0 and size() - 1.*/
+    public int handleAt(int slot) {
+        return slotToHandle[slot];
+    }
+
+    // Accessors by handle
+
+    public int getWorldX(int handle) {
+        return worldX[slotOf(handle)];
+    }
+
+    public int getWorldY(int handle) {
+        return worldY[slotOf(handle)];
+    }
+
+    public int getSpeed(int handle) {
+        return speed[slotOf(handle)];
+    }
+
+    public int getHealth(int handle) {
+        return health[slotOf(handle)];
+    }
+
+    public Direction getDirection(int handle) {
+        return Direction.of(direction[slotOf(handle)]);
+    }
+
+    public int getSpriteNum(int handle) {
+        return spriteNum[slotOf(handle)];
+    }
+
+    public int getSpriteCounter(int handle) {
+        return spriteCounter[slotOf(handle)];
+    }
+
+    /** Returns true if the entity owns all the given components.
+     * @param handle Handle of the entity.
+     * @param mask Components to check (POSITION, MOTION, ...).*/
+    public boolean hasComponents(int handle, int mask) {
+        return (components[slotOf(handle)] & mask) == mask;
+    }
+
+    /** Returns true if the entity at a slot owns all the given
+     * components and has all the given flags set.
+     * @param slot Slot index.
+     * @param componentMask Required components.
+     * @param flagMask Required flags.*/
+    public boolean matches(int slot, int componentMask, byte flagMask) {
+        return (components[slot] & componentMask) == componentMask
+                && (flags[slot] & flagMask) == flagMask;
+    }
+
+    /** Sets a flag of an entity.
+     * @param handle Handle of the entity.
+     * @param flag Flag to set.*/
+    public void setFlag(int handle, byte flag) {
+        flags[slotOf(handle)] |= flag;
+    }
+
+    /** Clears a flag of every entity in a single pass.
+     * @param flag Flag to clear.*/
+    public void clearFlag(byte flag) {
+        for(int i = 0; i < size; i++) {
+            flags[i] &= ~flag;
+        }
+    }
+
+    /** Returns true if the entity has all the given flags set.
+     * @param handle Handle of the entity.
+     * @param flag Flags to check (MOVING, ATTACKING, DEAD).*/
+    public boolean hasFlag(int handle, byte flag) {
+        return (flags[slotOf(handle)] & flag) == flag;
+    }
+
+    /** Counts the entities without the DEAD flag inside a square of
+     * a given half size around a point, with a single linear scan.
+     * @param x Center x coordinate in the world.
+     * @param y Center y coordinate in the world.
+     * @param range Half size of the square in pixels.
+     * @return amount of alive entities in range.*/
+    public int countInRange(int x, int y, int range) {
+        int count = 0;
+        for(int i = 0; i < size; i++) {
+            if((flags[i] & DEAD) == 0
+                    && Math.abs(worldX[i] - x) <= range
+                    && Math.abs(worldY[i] - y) <= range) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** Doubles the capacity of every array in the store.*/
+    private void grow() {
+        int capacity = worldX.length * 2;
+
+        worldX = Arrays.copyOf(worldX, capacity);
+        worldY = Arrays.copyOf(worldY, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        health = Arrays.copyOf(health, capacity);
+        spriteCounter = Arrays.copyOf(spriteCounter, capacity);
+        spriteNum = Arrays.copyOf(spriteNum, capacity);
+        direction = Arrays.copyOf(direction, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        components = Arrays.copyOf(components, capacity);
+        colliderX = Arrays.copyOf(colliderX, capacity);
+        colliderY = Arrays.copyOf(colliderY, capacity);
+        colliderWidth = Arrays.copyOf(colliderWidth, capacity);
+        colliderHeight = Arrays.copyOf(colliderHeight, capacity);
+
+        slotToHandle = Arrays.copyOf(slotToHandle, capacity);
+        freeHandles = Arrays.copyOf(freeHandles, capacity);
+
+        int oldLength = handleToSlot.length;
+        handleToSlot = Arrays.copyOf(handleToSlot, capacity);
+        Arrays.fill(handleToSlot, oldLength, capacity, -1);
+    }
+}
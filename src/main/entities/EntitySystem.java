@@ -0,0 +1,35 @@
+package main.entities;
+
+/** Base class for the entity systems. A system is a batched pass over
+ * the EntityStore that only processes the entities owning a given set of
+ * components and having a given set of flags, working straight on the
+ * packed arrays of the store.*/
+public abstract class EntitySystem {
+
+    private final int componentMask;
+    private final byte flagMask;
+
+    /** Creates a system for the entities matching the given masks.
+     * @param componentMask Components an entity needs to be processed.
+     * @param flagMask Flags an entity needs to be processed.*/
+    protected EntitySystem(int componentMask, byte flagMask) {
+        this.componentMask = componentMask;
+        this.flagMask = flagMask;
+    }
+
+    /** Runs the system over every matching entity of a store.
+     * @param store Store with the entities.*/
+    public void update(EntityStore store) {
+        int size = store.size();
+        for(int slot = 0; slot < size; slot++) {
+            if(store.matches(slot, componentMask, flagMask)) {
+                process(store, slot);
+            }
+        }
+    }
+
+    /** Processes a single entity.
+     * @param store Store with the entities.
+     * @param slot Slot of the entity in the store.*/
+    protected abstract void process(EntityStore store, int slot);
+}
@@ -0,0 +1,137 @@
+package main.entities;
+
+import main.GamePanel;
+import main.tiles.WorldMap;
+
+/** Answers whether an entity can see a target by casting a ray over the
+ * tiles of the collision map (DDA). The target is set once per tick, and
+ * the result of every tile around it looking at it is cached until the
+ * target changes tile or the map changes, so enemies standing on the same
+ * tile share a single ray. Queries are safe from several threads while
+ * the target isn't being changed.*/
+public class LineOfSight {
+
+    public final int CACHE_RADIUS = 32; // Tiles around the target with cached results
+
+    private volatile WorldMap world;
+
+    // Cache entries are (generation << 1) | visible, only valid for the current generation
+    private final int cacheSize = CACHE_RADIUS * 2 + 1;
+    private final int[] cache = new int[cacheSize * cacheSize];
+    private volatile int generation = 1;
+    private volatile int targetRow = -1, targetCol = -1;
+
+    GamePanel gamePanel;
+
+    /** Creates a LineOfSight object for the current map.*/
+    public LineOfSight(GamePanel gamePanel) {
+        this.gamePanel = gamePanel;
+        loadMap();
+    }
+
+    /** Uses the current world of the tile manager for the
+     * next queries, dropping every cached result.*/
+    public void loadMap() {
+        world = gamePanel.tileManager.world;
+        generation++;
+    }
+
+    /** Sets the entity the cached queries look at. Must be called from
+     * the game thread before the entities query it (i.e. once per tick).
+     * @param target Entity to look at, usually the player.*/
+    public void setTarget(Entity target) {
+        int row = tileOf(target.worldY);
+        int col = tileOf(target.worldX);
+        if(row != targetRow || col != targetCol) {
+            targetRow = row;
+            targetCol = col;
+            generation++;
+        }
+    }
+
+    /** Returns true if nothing solid is between the tiles of two entities.
+     * The result is cached if the target is the one set with setTarget.
+     * @param entity Entity looking.
+     * @param target Entity being looked at.*/
+    public boolean canSee(Entity entity, Entity target) {
+
+        int fromRow = tileOf(entity.worldY);
+        int fromCol = tileOf(entity.worldX);
+        int toRow = tileOf(target.worldY);
+        int toCol = tileOf(target.worldX);
+
+        int cacheRow = fromRow - toRow + CACHE_RADIUS;
+        int cacheCol = fromCol - toCol + CACHE_RADIUS;
+        if(toRow != targetRow || toCol != targetCol
+                || cacheRow < 0 || cacheCol < 0 || cacheRow >= cacheSize || cacheCol >= cacheSize) {
+            return isClear(world, fromRow, fromCol, toRow, toCol);
+        }
+
+        int gen = generation;
+        int cell = cacheRow * cacheSize + cacheCol;
+        int entry = cache[cell];
+        if(entry >>> 1 == gen) {
+            return (entry & 1) != 0;
+        }
+
+        boolean visible = isClear(world, fromRow, fromCol, toRow, toCol);
+        cache[cell] = (gen << 1) | (visible ? 1 : 0);
+        return visible;
+    }
+
+    /** Walks the tiles crossed by the segment between the centers of two
+     * tiles, stopping at the first solid one. The start and end tiles
+     * are not checked. When the segment goes exactly through a corner it
+     * is blocked only if both tiles beside the corner are solid.
+     * @param world World with the solid tiles.
+     * @param fromRow Row of the start tile.
+     * @param fromCol Column of the start tile.
+     * @param toRow Row of the end tile.
+     * @param toCol Column of the end tile.
+     * @return true if no solid tile is in between.*/
+    static boolean isClear(WorldMap world, int fromRow, int fromCol, int toRow, int toCol) {
+
+        int dRow = toRow - fromRow;
+        int dCol = toCol - fromCol;
+        int stepRow = Integer.signum(dRow);
+        int stepCol = Integer.signum(dCol);
+
+        // Distance along the segment (0 to 1) between tile borders, and to the next border
+        double deltaRow = dRow == 0 ? Double.POSITIVE_INFINITY : 1.0 / Math.abs(dRow);
+        double deltaCol = dCol == 0 ? Double.POSITIVE_INFINITY : 1.0 / Math.abs(dCol);
+        double nextRow = deltaRow / 2;
+        double nextCol = deltaCol / 2;
+
+        int row = fromRow;
+        int col = fromCol;
+        while(row != toRow || col != toCol) {
+            if(nextCol < nextRow) {
+                col += stepCol;
+                nextCol += deltaCol;
+            } else if(nextRow < nextCol) {
+                row += stepRow;
+                nextRow += deltaRow;
+            } else {
+                if(world.isSolid(row, col + stepCol) && world.isSolid(row + stepRow, col)) {
+                    return false;
+                }
+                row += stepRow;
+                col += stepCol;
+                nextRow += deltaRow;
+                nextCol += deltaCol;
+            }
+
+            if((row != toRow || col != toCol) && world.isSolid(row, col)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the tile containing the center of an entity along one axis.
+     * @param world Coordinate of the entity in the world.*/
+    private int tileOf(int world) {
+        int tileSize = gamePanel.tileSize;
+        return (world + tileSize / 2) / tileSize;
+    }
+}
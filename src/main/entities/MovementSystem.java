@@ -0,0 +1,19 @@
+package main.entities;
+
+/** Moves the active entities that decided to take a step this tick
+ * one step of their speed in their direction.*/
+public class MovementSystem extends EntitySystem {
+
+    /** Creates a MovementSystem.*/
+    public MovementSystem() {
+        super(EntityStore.POSITION | EntityStore.MOTION | EntityStore.AI,
+                (byte) (EntityStore.ACTIVE | EntityStore.STEPPING));
+    }
+
+    @Override
+    protected void process(EntityStore store, int slot) {
+        Direction direction = Direction.of(store.direction[slot]);
+        store.worldX[slot] += direction.dx * store.speed[slot];
+        store.worldY[slot] += direction.dy * store.speed[slot];
+    }
+}
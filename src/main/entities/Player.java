@@ -14,13 +14,9 @@ import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.event.KeyEvent;
 import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Objects;
 import java.util.logging.Level;
 
-import javax.imageio.ImageIO;
-
 /** Main player class.
  * @author david.f@opendeusto.es*/
 public class Player extends Entity implements Drawable {
@@ -65,7 +61,6 @@ public class Player extends Entity implements Drawable {
 
 
 	// Payer Status
-	public int health = 100;
 	public int stamina = 5;
 	public final int MAX_HEALTH = 100;
 	public final int MAX_STAMINA = 5;
@@ -87,7 +82,6 @@ public class Player extends Entity implements Drawable {
 		defaultScreenY = (gamePanel.screenHeight / 2) - (gamePanel.tileSize / 2);
 
 		setDefaultValues();
-		getPlayerSprite();
 		setItems();
 
 		GamePanel.logger.log(Level.INFO, "Player Created at");
@@ -109,7 +103,7 @@ public class Player extends Entity implements Drawable {
 		worldX = gamePanel.tileSize * 90;
 		worldY = gamePanel.tileSize * 85;
 		speed = 4;
-		direction = "down";
+		direction = Direction.DOWN;
 		moving = false;
 		attacking = false;
 		collisionBox = new Rectangle(11, 22, 42, 42);
@@ -127,27 +121,16 @@ public class Player extends Entity implements Drawable {
 
 	}
 
-	/** Loads spriteSheets of the player.*/
+	/** Loads spriteSheets of the player. Called by the resource
+	 * loader of the GamePanel, not by the constructor.*/
 	public void getPlayerSprite() {
+		acquireSprites("player");
+	}
 
-		// For image scaling and optimization
-		Utility util = new Utility();
-
-		try {
-			runSprites = ImageIO
-					.read(Objects.requireNonNull(getClass().getResourceAsStream("/main/res/player/run.png")));
-			runSprites = util.scaleImage(runSprites, tileSize * 4, tileSize * 4);
-
-			idleSprites = ImageIO
-					.read(Objects.requireNonNull(getClass().getResourceAsStream("/main/res/player/idle.png")));
-			idleSprites = util.scaleImage(idleSprites, tileSize * 4, tileSize * 4);
-
-			attackSprites = ImageIO
-					.read(Objects.requireNonNull(getClass().getResourceAsStream("/main/res/player/attack1.png")));
-			attackSprites = util.scaleImage(attackSprites, tileSize * 4, tileSize * 4);
-		} catch (IOException e) {
-			GamePanel.logger.log(Level.SEVERE, "Failed Loading Player Sprites", e);
-		}
+	@Override
+	public int getComponents() {
+		return EntityStore.POSITION | EntityStore.MOTION | EntityStore.COLLIDER
+				| EntityStore.SPRITE | EntityStore.HEALTH;
 	}
 
 	/** Updates the state of the player based on user input,
@@ -174,16 +157,16 @@ public class Player extends Entity implements Drawable {
 			speed = (attacking ? 2 : 4); // Moving speed is reduced when attacking
 
 			if (keyHandler.isLastMoveKeyPressed(KeyEvent.VK_W)) {
-				direction = "up";
+				direction = Direction.UP;
 				hitBox = hitBoxUp;
 			} else if (keyHandler.isLastMoveKeyPressed(KeyEvent.VK_S)) {
-				direction = "down";
+				direction = Direction.DOWN;
 				hitBox = hitBoxDown;
 			} else if (keyHandler.isLastMoveKeyPressed(KeyEvent.VK_A)) {
-				direction = "left";
+				direction = Direction.LEFT;
 				hitBox = hitBoxLeft;
 			} else {
-				direction = "right";
+				direction = Direction.RIGHT;
 				hitBox = hitBoxRight;
 			}
 
@@ -201,20 +184,9 @@ public class Player extends Entity implements Drawable {
 			
 			// If collision is false the player can move
 			if (!collisionOn) {
-				switch (direction) {
-				case "up":
-					worldY -= speed;
-					break;
-				case "down":
-					worldY += speed;
-					break;
-				case "left":
-					worldX -= speed;
-					break;
-				case "right":
-					worldX += speed;
-					break;
-				}
+				worldX += direction.dx * speed;
+				worldY += direction.dy * speed;
+				gamePanel.currentGame.statistics.distanceWalked += speed;
 			}
 
 			// Checking if the tile the players is at has changed
@@ -243,16 +215,16 @@ public class Player extends Entity implements Drawable {
 		if(attacking) {
 			collisionBox = hitBox;
 			for(Entity ent : gamePanel.entityManager.entities) {
-				if(ent instanceof Enemy) {
+				if(ent != this && ent.hasComponents(EntityStore.HEALTH | EntityStore.AI)) {
 					if(collides(this, ent)) {
 						if(hasBloodySword) {
-							((Enemy) ent).damage(100);
+							ent.damage(100);
 						} else if(hasGoldenSword) {
-							 ((Enemy) ent).damage(50);
+							ent.damage(50);
 						} else if(hasIronSword) {
-							((Enemy) ent).damage(34);
+							ent.damage(34);
 						} else if(hasWoodenSword) {
-							((Enemy) ent).damage(25);
+							ent.damage(25);
 						}
 					}
 				}
@@ -290,6 +262,7 @@ public class Player extends Entity implements Drawable {
 	 * it can again receive damage.
 	 * @param damage Amount of health to subtract.*/
 	public void damage(int damage) {
+		gamePanel.currentGame.statistics.countDamage(damage, invulnerable);
 		if (!invulnerable) {
 			i_counter = 0;
 			health -= damage;
@@ -332,7 +305,8 @@ public class Player extends Entity implements Drawable {
 
 		if (i != 999) {
 
-			String AssetName = gamePanel.items[i].name;
+			SuperItem item = gamePanel.items[i];
+			String AssetName = item.name;
 
 			switch (AssetName) {
 			case "Wooden Sword":
@@ -494,6 +468,7 @@ public class Player extends Entity implements Drawable {
 				break;
 			}
 
+			gamePanel.currentGame.statistics.countPickUp(item, gamePanel.items[i]);
 		}
 	}
 
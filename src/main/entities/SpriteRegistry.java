@@ -0,0 +1,110 @@
+package main.entities;
+
+import main.GamePanel;
+import main.Utility;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.logging.Level;
+
+/** Reference counted registry of sprite sets. Each sprite set is loaded
+ * and scaled the first time it is acquired and then shared by every
+ * entity using it, until the last one releases it.*/
+public class SpriteRegistry {
+
+    private final int tileSize;
+    private final HashMap<String, Entry> sets = new HashMap<>();
+
+    /** Creates a SpriteRegistry.
+     * @param tileSize Size of a frame once scaled.*/
+    public SpriteRegistry(int tileSize) {
+        this.tileSize = tileSize;
+    }
+
+    /** Returns the sprite set with a given id, loading it if no other
+     * entity is using it. Every call must be matched by a release call.
+     * @param id Id of the sprite set, which is the folder of the
+     * sprite sheets inside /main/res (i.e. "enemy", "player").
+     * @return the shared sprite set.*/
+    public synchronized SpriteSet acquire(String id) {
+        Entry entry = sets.get(id);
+        if(entry == null) {
+            entry = new Entry(load(id));
+            sets.put(id, entry);
+        }
+        entry.references++;
+        return entry.set;
+    }
+
+    /** Releases a sprite set previously acquired. When no entity uses
+     * it anymore it is dropped from the registry.
+     * @param id Id of the sprite set.*/
+    public synchronized void release(String id) {
+        Entry entry = sets.get(id);
+        if(entry == null) {
+            return;
+        }
+        entry.references--;
+        if(entry.references <= 0) {
+            sets.remove(id);
+            GamePanel.logger.log(Level.FINE, "Sprite Set Released: " + id);
+        }
+    }
+
+    /** Returns how many entities are using a sprite set.
+     * @param id Id of the sprite set.*/
+    public synchronized int getReferences(String id) {
+        Entry entry = sets.get(id);
+        return entry == null ? 0 : entry.references;
+    }
+
+    /** Loads and scales the sprite sheets of a sprite set.
+     * @param id Id of the sprite set.
+     * @return the loaded sprite set.*/
+    private SpriteSet load(String id) {
+
+        String folder = "/main/res/" + id + "/";
+        SpriteSet set = new SpriteSet(id,
+                loadSheet(folder + "idle.png"),
+                loadSheet(folder + "run.png"),
+                loadSheet(folder + "attack1.png"),
+                tileSize);
+
+        GamePanel.logger.log(Level.INFO, "Sprite Set Loaded: " + id);
+        return set;
+    }
+
+    /** Loads a single sprite sheet and scales it to 4x4 frames.
+     * @param path Path to the sprite sheet in the classpath.
+     * @return the scaled sheet, or null if it couldn't be loaded.*/
+    private BufferedImage loadSheet(String path) {
+
+        // For image scaling and optimization
+        Utility util = new Utility();
+
+        try (InputStream is = getClass().getResourceAsStream(path)) {
+            if(is == null) {
+                throw new IOException("Missing resource " + path);
+            }
+            BufferedImage sheet = ImageIO.read(is);
+            return util.scaleImage(sheet, tileSize * SpriteSet.STEPS, tileSize * SpriteSet.DIRECTIONS);
+        } catch(IOException e) {
+            GamePanel.logger.log(Level.SEVERE, "Failed Loading Sprite Sheet " + path, e);
+            return null;
+        }
+    }
+
+    /** Sprite set with its reference count.*/
+    private static class Entry {
+
+        final SpriteSet set;
+        int references = 0;
+
+        Entry(SpriteSet set) {
+            this.set = set;
+        }
+    }
+}
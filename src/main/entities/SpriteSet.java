@@ -0,0 +1,67 @@
+package main.entities;
+
+import java.awt.image.BufferedImage;
+
+/** Immutable set of scaled sprite sheets (idle, run and attack) shared
+ * by all the entities of the same type. The animation frames are cut
+ * from the sheets once, so drawing doesn't create sub-images every frame.*/
+public class SpriteSet {
+
+    // Sprite sheets are 4 directions (rows) by 4 animation steps (columns)
+    public static final int DIRECTIONS = 4;
+    public static final int STEPS = 4;
+
+    public final String id;
+    public final BufferedImage idleSprites, runSprites, attackSprites;
+
+    private final BufferedImage[][][] frames;
+
+    /** Creates a SpriteSet from already scaled sprite sheets.
+     * @param id Id of the sprite set.
+     * @param idleSprites Idle sprite sheet.
+     * @param runSprites Running sprite sheet.
+     * @param attackSprites Attacking sprite sheet.
+     * @param frameSize Size in pixels of each frame in the sheets.*/
+    public SpriteSet(String id, BufferedImage idleSprites, BufferedImage runSprites,
+                     BufferedImage attackSprites, int frameSize) {
+        this.id = id;
+        this.idleSprites = idleSprites;
+        this.runSprites = runSprites;
+        this.attackSprites = attackSprites;
+
+        frames = new BufferedImage[AnimationState.values().length][][];
+        frames[AnimationState.IDLE.ordinal()] = cut(idleSprites, frameSize);
+        frames[AnimationState.RUN.ordinal()] = cut(runSprites, frameSize);
+        frames[AnimationState.ATTACK.ordinal()] = cut(attackSprites, frameSize);
+    }
+
+    /** Returns a single animation frame.
+     * @param state Animation state.
+     * @param direction Direction, which decides the row in the sheet.
+     * @param step Animation step, starting from 0.
+     * @return the frame image, or null if the sheet failed to load.*/
+    public BufferedImage getFrame(AnimationState state, Direction direction, int step) {
+        BufferedImage[][] sheet = frames[state.ordinal()];
+        if(sheet == null) {
+            return null;
+        }
+        return sheet[direction.ordinal()][step];
+    }
+
+    /** Cuts a sprite sheet into its frames.
+     * @param sheet Sprite sheet to cut.
+     * @param frameSize Size of each frame in pixels.
+     * @return frames indexed by [direction][step].*/
+    private static BufferedImage[][] cut(BufferedImage sheet, int frameSize) {
+        if(sheet == null) {
+            return null;
+        }
+        BufferedImage[][] result = new BufferedImage[DIRECTIONS][STEPS];
+        for(int row = 0; row < DIRECTIONS; row++) {
+            for(int col = 0; col < STEPS; col++) {
+                result[row][col] = sheet.getSubimage(col * frameSize, row * frameSize, frameSize, frameSize);
+            }
+        }
+        return result;
+    }
+}
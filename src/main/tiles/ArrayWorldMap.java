@@ -0,0 +1,83 @@
+package main.tiles;
+
+import java.util.ArrayList;
+
+/** WorldMap fully kept in memory, for maps small enough to be loaded
+ * at once. Each layer is stored in the most compact form for its
+ * content (see MapLayer.of), so the tiles of a row are contiguous
+ * in memory and empty layers take almost no space.*/
+public class ArrayWorldMap implements WorldMap {
+
+    private final int rows;
+    private final int cols;
+    private final MapLayer[] layers;
+    private final MapLayer collisions;
+
+    /** Creates an ArrayWorldMap from its layers. The grids are
+     * copied, so they can be discarded afterwards.
+     * @param layers Tile layers, indexed by [row][col].
+     * @param collisions Collision layer, or null if the map has no collisions.*/
+    public ArrayWorldMap(ArrayList<int[][]> layers, int[][] collisions) {
+        int[][] first = layers.isEmpty() ? collisions : layers.get(0);
+        this.rows = first.length;
+        this.cols = first[0].length;
+
+        this.layers = new MapLayer[layers.size()];
+        for(int i = 0; i < layers.size(); i++) {
+            this.layers[i] = MapLayer.of(layers.get(i));
+        }
+        this.collisions = collisions == null ? null : MapLayer.of(collisions);
+    }
+
+    /** Creates an ArrayWorldMap with the content of a compiled map.
+     * @param mapFile Loaded map.*/
+    public ArrayWorldMap(MapFile mapFile) {
+        this(mapFile.layers, mapFile.collisions);
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public int getLayerCount() {
+        return layers.length;
+    }
+
+    @Override
+    public int getTile(int layer, int row, int col) {
+        if(row < 0 || col < 0 || row >= rows || col >= cols) {
+            return -1;
+        }
+        return layers[layer].get(row, col);
+    }
+
+    @Override
+    public int getCollision(int row, int col) {
+        if(collisions == null || row < 0 || col < 0 || row >= rows || col >= cols) {
+            return -1;
+        }
+        return collisions.get(row, col);
+    }
+
+    /** Returns a layer of the map, to see how it is stored.
+     * @param layer Index of the layer.*/
+    public MapLayer getLayer(int layer) {
+        return layers[layer];
+    }
+
+    /** Returns the approximate memory used by the tiles of the map in bytes.*/
+    public long getBytes() {
+        long bytes = collisions == null ? 0 : collisions.getBytes();
+        for(MapLayer layer : layers) {
+            bytes += layer.getBytes();
+        }
+        return bytes;
+    }
+}
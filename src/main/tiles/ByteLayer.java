@@ -0,0 +1,48 @@
+package main.tiles;
+
+/** Layer stored as a flat row major array of bytes,
+ * for small values such as the collision shapes.*/
+public class ByteLayer implements MapLayer {
+
+    private final int rows;
+    private final int cols;
+    private final byte[] tiles;
+
+    /** Creates a ByteLayer with the content of a grid.
+     * @param grid Grid of tiles, indexed by [row][col].
+     * @throws IllegalArgumentException if a value doesn't fit in a byte.*/
+    public ByteLayer(int[][] grid) {
+        rows = grid.length;
+        cols = grid[0].length;
+        tiles = new byte[rows * cols];
+        for(int row = 0; row < rows; row++) {
+            for(int col = 0; col < cols; col++) {
+                int value = grid[row][col];
+                if(value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+                    throw new IllegalArgumentException("Tile " + value + " doesn't fit in a byte");
+                }
+                tiles[row * cols + col] = (byte) value;
+            }
+        }
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public int get(int row, int col) {
+        return tiles[row * cols + col];
+    }
+
+    @Override
+    public long getBytes() {
+        return tiles.length;
+    }
+}
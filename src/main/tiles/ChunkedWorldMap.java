@@ -0,0 +1,300 @@
+package main.tiles;
+
+import main.GamePanel;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+
+/** WorldMap paged in from a memory mapped file, for worlds that don't
+ * fit in memory. The world is split in square chunks stored one after
+ * the other, each with all the layers and the collisions of its area, so
+ * a chunk is a single contiguous mapping. Chunks are mapped the first time
+ * they are read, and the ones used the longest time ago are dropped when
+ * too many are mapped. Focusing an area maps the chunks around it ahead.
+ * <p>Layout (big endian): magic, version, rows, cols, layer count,
+ * collision flag and chunk size as ints, followed by the chunks in row
+ * order. Each chunk holds every layer and then the collision layer, as
+ * chunkSize x chunkSize shorts; the chunks on the edges are padded with -1.*/
+public class ChunkedWorldMap implements WorldMap, Closeable {
+
+    public static final int MAGIC = 0x574F524C; // "WORL"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 7 * Integer.BYTES;
+    public static final int DEFAULT_CHUNK_SIZE = 32;
+
+    public final int MAX_LOADED_CHUNKS = 64; // Chunks mapped at the same time
+    public final int PREFETCH_RADIUS = 1; // Chunks around the focus mapped ahead
+
+    private final FileChannel channel;
+    private final int rows, cols, layerCount;
+    private final boolean hasCollisions;
+    private final int chunkSize, chunkRows, chunkCols;
+    private final long chunkBytes;
+
+    private final AtomicReferenceArray<ShortBuffer> chunks;
+    private final int[] lastUsed; // Focus count at the last use of each chunk
+    private final ArrayList<Integer> loaded = new ArrayList<>();
+    private volatile int focusCount = 0;
+    private volatile int focusChunk = -1;
+
+    /** Opens a chunked world file.
+     * @param path World file.
+     * @throws IOException if the file can't be read or isn't a valid world.*/
+    public ChunkedWorldMap(Path path) throws IOException {
+
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while(header.hasRemaining()) {
+                if(channel.read(header, header.position()) < 0) {
+                    throw new IOException("Truncated world file");
+                }
+            }
+            header.flip();
+
+            if(header.getInt() != MAGIC) {
+                throw new IOException("Not a chunked world");
+            }
+            int version = header.getInt();
+            if(version != VERSION) {
+                throw new IOException("Unsupported world version " + version);
+            }
+            rows = header.getInt();
+            cols = header.getInt();
+            layerCount = header.getInt();
+            hasCollisions = header.getInt() == 1;
+            chunkSize = header.getInt();
+            if(rows <= 0 || cols <= 0 || layerCount < 0 || chunkSize <= 0) {
+                throw new IOException("Invalid world size");
+            }
+
+            chunkRows = (rows + chunkSize - 1) / chunkSize;
+            chunkCols = (cols + chunkSize - 1) / chunkSize;
+            int grids = layerCount + (hasCollisions ? 1 : 0);
+            chunkBytes = (long) grids * chunkSize * chunkSize * Short.BYTES;
+
+            long expected = HEADER_SIZE + chunkBytes * chunkRows * chunkCols;
+            if(channel.size() < expected) {
+                throw new IOException("Truncated world file");
+            }
+        } catch(IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        chunks = new AtomicReferenceArray<>(chunkRows * chunkCols);
+        lastUsed = new int[chunkRows * chunkCols];
+    }
+
+    /** Opens a chunked world from the classpath. Worlds inside a jar are
+     * copied to a temporary file first, since they can't be mapped.
+     * @param path Path to the world in the classpath.
+     * @return the world, or null if there is no such resource.
+     * @throws IOException if the world can't be read or isn't valid.*/
+    public static ChunkedWorldMap open(String path) throws IOException {
+        URL url = ChunkedWorldMap.class.getResource(path);
+        if(url == null) {
+            return null;
+        }
+
+        if(url.getProtocol().equals("file")) {
+            try {
+                return new ChunkedWorldMap(Paths.get(url.toURI()));
+            } catch(URISyntaxException e) {
+                throw new IOException("Invalid world path " + url, e);
+            }
+        }
+
+        Path copy = Files.createTempFile("world", ".world");
+        copy.toFile().deleteOnExit();
+        try (InputStream is = url.openStream()) {
+            Files.copy(is, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return new ChunkedWorldMap(copy);
+    }
+
+    /** Writes a map in the chunked format.
+     * @param map Map to write.
+     * @param path File to write.
+     * @param chunkSize Size of the chunks in tiles.
+     * @throws IOException if the file can't be written.*/
+    public static void write(MapFile map, Path path, int chunkSize) throws IOException {
+
+        ArrayList<int[][]> grids = new ArrayList<>(map.layers);
+        if(map.collisions != null) {
+            grids.add(map.collisions);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(map.rows)
+                .putInt(map.cols)
+                .putInt(map.layers.size())
+                .putInt(map.collisions != null ? 1 : 0)
+                .putInt(chunkSize)
+                .flip();
+
+        ByteBuffer chunk = ByteBuffer.allocate(grids.size() * chunkSize * chunkSize * Short.BYTES);
+        try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, header);
+
+            for(int top = 0; top < map.rows; top += chunkSize) {
+                for(int left = 0; left < map.cols; left += chunkSize) {
+                    chunk.clear();
+                    for(int[][] grid : grids) {
+                        for(int row = top; row < top + chunkSize; row++) {
+                            for(int col = left; col < left + chunkSize; col++) {
+                                boolean inside = row < map.rows && col < map.cols;
+                                chunk.putShort((short) (inside ? grid[row][col] : -1));
+                            }
+                        }
+                    }
+                    chunk.flip();
+                    writeFully(out, chunk);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public int getLayerCount() {
+        return layerCount;
+    }
+
+    @Override
+    public int getTile(int layer, int row, int col) {
+        if(row < 0 || col < 0 || row >= rows || col >= cols) {
+            return -1;
+        }
+        return read(layer, row, col);
+    }
+
+    @Override
+    public int getCollision(int row, int col) {
+        if(!hasCollisions || row < 0 || col < 0 || row >= rows || col >= cols) {
+            return -1;
+        }
+        return read(layerCount, row, col);
+    }
+
+    /** Maps the chunks around a tile ahead, and marks them as used,
+     * so they are the last ones to be dropped.
+     * @param row Row at the center of the area.
+     * @param col Column at the center of the area.*/
+    @Override
+    public void focus(int row, int col) {
+        int centerRow = Math.min(Math.max(row / chunkSize, 0), chunkRows - 1);
+        int centerCol = Math.min(Math.max(col / chunkSize, 0), chunkCols - 1);
+        int center = centerRow * chunkCols + centerCol;
+        if(center == focusChunk) {
+            return;
+        }
+        focusChunk = center;
+        focusCount++;
+
+        for(int r = Math.max(0, centerRow - PREFETCH_RADIUS); r <= Math.min(chunkRows - 1, centerRow + PREFETCH_RADIUS); r++) {
+            for(int c = Math.max(0, centerCol - PREFETCH_RADIUS); c <= Math.min(chunkCols - 1, centerCol + PREFETCH_RADIUS); c++) {
+                chunk(r * chunkCols + c);
+            }
+        }
+    }
+
+    /** Returns the amount of chunks currently mapped.*/
+    public synchronized int getLoadedChunks() {
+        return loaded.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** Reads a value of a grid (a layer or the collisions) of the world.
+     * @param grid Index of the grid inside the chunk.
+     * @param row Row of the tile, inside the world.
+     * @param col Column of the tile, inside the world.*/
+    private int read(int grid, int row, int col) {
+        int id = (row / chunkSize) * chunkCols + col / chunkSize;
+        ShortBuffer chunk = chunk(id);
+        if(chunk == null) {
+            return -1;
+        }
+        int index = (grid * chunkSize + row % chunkSize) * chunkSize + col % chunkSize;
+        return chunk.get(index);
+    }
+
+    /** Returns a mapped chunk, mapping it if needed.
+     * @param id Index of the chunk.
+     * @return the chunk, or null if it couldn't be mapped.*/
+    private ShortBuffer chunk(int id) {
+        lastUsed[id] = focusCount;
+        ShortBuffer chunk = chunks.get(id);
+        return chunk != null ? chunk : load(id);
+    }
+
+    /** Maps a chunk, dropping the least recently used one
+     * if too many chunks are mapped.
+     * @param id Index of the chunk.
+     * @return the chunk, or null if it couldn't be mapped.*/
+    private synchronized ShortBuffer load(int id) {
+        ShortBuffer chunk = chunks.get(id);
+        if(chunk != null) {
+            return chunk; // Mapped by another thread meanwhile
+        }
+
+        if(loaded.size() >= MAX_LOADED_CHUNKS) {
+            int oldest = 0;
+            for(int i = 1; i < loaded.size(); i++) {
+                if(lastUsed[loaded.get(i)] < lastUsed[loaded.get(oldest)]) {
+                    oldest = i;
+                }
+            }
+            // The mapping is released by the garbage collector once nobody reads it
+            chunks.set(loaded.remove(oldest), null);
+        }
+
+        try {
+            chunk = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + chunkBytes * id, chunkBytes)
+                    .asShortBuffer();
+        } catch(IOException e) {
+            GamePanel.logger.log(Level.SEVERE, "Failed Mapping World Chunk " + id, e);
+            return null;
+        }
+        chunks.set(id, chunk);
+        loaded.add(id);
+        return chunk;
+    }
+
+    /** Writes the whole content of a buffer to a channel.*/
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
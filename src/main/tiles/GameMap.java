@@ -0,0 +1,74 @@
+package main.tiles;
+
+import main.assets.SuperAsset;
+import main.entities.Entity;
+
+import java.util.ArrayList;
+
+/** Map of the game registered in the WorldManager, with the files of
+ * its layers, collisions and entities, where the player appears and
+ * the transitions to the other maps. While the player is in another
+ * map, its entities and assets are kept here.*/
+public class GameMap {
+
+    public final String id;
+    public final int cols;
+    public final int rows;
+
+    // Files in the classpath (the compiled ones are optional)
+    public final ArrayList<String> layerPaths = new ArrayList<>();
+    public String collisionPath;
+    public String compiledPath;
+    public String chunkedPath;
+    public String entitiesPath;
+
+    // Default position of the player in tiles
+    public int spawnCol;
+    public int spawnRow;
+
+    public final ArrayList<Transition> transitions = new ArrayList<>();
+
+    // State kept while the player is in another map (null until it is left)
+    public ArrayList<Entity> entities;
+    public SuperAsset[] assets;
+
+    /** Creates a GameMap.
+     * @param id Id of the map.
+     * @param cols Width of the map in tiles.
+     * @param rows Height of the map in tiles.*/
+    public GameMap(String id, int cols, int rows) {
+        this.id = id;
+        this.cols = cols;
+        this.rows = rows;
+    }
+
+    /** Adds a transition to another map.
+     * @param col Column of the tile that moves the player.
+     * @param row Row of the tile that moves the player.
+     * @param target Id of the map the player is moved to.
+     * @param targetCol Column where the player appears.
+     * @param targetRow Row where the player appears.
+     * @return this map, to chain calls.*/
+    public GameMap addTransition(int col, int row, String target, int targetCol, int targetRow) {
+        transitions.add(new Transition(col, row, target, targetCol, targetRow));
+        return this;
+    }
+
+    /** Tile of a map that moves the player to another map.*/
+    public static class Transition {
+
+        public final int col;
+        public final int row;
+        public final String target;
+        public final int targetCol;
+        public final int targetRow;
+
+        public Transition(int col, int row, String target, int targetCol, int targetRow) {
+            this.col = col;
+            this.row = row;
+            this.target = target;
+            this.targetCol = targetCol;
+            this.targetRow = targetRow;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package main.tiles;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+/** Compiles the CSV layers of a map into a single MapFile.
+ * <p>Usage: MapCompiler output.map|output.world collisions.csv|- layer.csv...
+ * <p>The layers are stored in the given order, and "-" compiles a
+ * map without collisions. Outputs ending in .world are written in chunks
+ * for the ChunkedWorldMap, for worlds too big to be loaded in memory.
+ * The compiled maps are committed next to their CSV sources, which stay
+ * the editable version.*/
+public class MapCompiler {
+
+    public static void main(String[] args) throws IOException {
+
+        if(args.length < 3) {
+            System.err.println("Usage: MapCompiler output.map|output.world collisions.csv|- layer.csv...");
+            System.exit(1);
+        }
+
+        ArrayList<int[][]> layers = new ArrayList<>();
+        for(int i = 2; i < args.length; i++) {
+            layers.add(readCsv(Paths.get(args[i])));
+        }
+        int[][] collisions = args[1].equals("-") ? null : readCsv(Paths.get(args[1]));
+
+        MapFile map = compile(layers, collisions);
+        if(args[0].endsWith(".world")) {
+            ChunkedWorldMap.write(map, Paths.get(args[0]), ChunkedWorldMap.DEFAULT_CHUNK_SIZE);
+        } else {
+            map.write(Paths.get(args[0]));
+        }
+
+        System.out.println("Compiled " + args[0] + ": " + map.rows + "x" + map.cols + ", "
+                + layers.size() + " layers" + (collisions != null ? " and collisions" : ""));
+    }
+
+    /** Builds a MapFile from its layers, checking they all have the same size.
+     * @param layers Tile layers.
+     * @param collisions Collision layer, or null.
+     * @return the map.*/
+    public static MapFile compile(ArrayList<int[][]> layers, int[][] collisions) {
+
+        int[][] first = layers.isEmpty() ? collisions : layers.get(0);
+        if(first == null) {
+            throw new IllegalArgumentException("A map needs at least one layer");
+        }
+        int rows = first.length;
+        int cols = first[0].length;
+
+        ArrayList<int[][]> grids = new ArrayList<>(layers);
+        if(collisions != null) {
+            grids.add(collisions);
+        }
+        for(int[][] grid : grids) {
+            if(grid.length != rows) {
+                throw new IllegalArgumentException("Layers have different heights");
+            }
+            for(int[] row : grid) {
+                if(row.length != cols) {
+                    throw new IllegalArgumentException("Layers have different widths");
+                }
+            }
+        }
+
+        return new MapFile(rows, cols, layers, collisions);
+    }
+
+    /** Reads a CSV layer, with one row of tiles per line.
+     * @param path CSV file.
+     * @return the layer, indexed by [row][col].*/
+    public static int[][] readCsv(Path path) throws IOException {
+
+        ArrayList<int[]> rows = new ArrayList<>();
+        try (BufferedReader br = Files.newBufferedReader(path)) {
+            String line;
+            while((line = br.readLine()) != null) {
+                line = line.trim();
+                if(line.isEmpty()) {
+                    continue;
+                }
+                String[] numbers = line.split(",");
+                int[] row = new int[numbers.length];
+                for(int col = 0; col < numbers.length; col++) {
+                    row[col] = Integer.parseInt(numbers[col].trim());
+                }
+                rows.add(row);
+            }
+        }
+        return rows.toArray(new int[0][]);
+    }
+}
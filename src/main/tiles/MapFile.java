@@ -0,0 +1,171 @@
+package main.tiles;
+
+import main.GamePanel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+/** Compiled map, with every tile layer and the collision layer packed
+ * as shorts after a small header, so it can be loaded with a couple of
+ * bulk reads instead of parsing text. Maps are compiled from their CSV
+ * layers with the MapCompiler.
+ * <p>Layout (big endian): magic, version, rows, cols, layer count and
+ * collision flag as ints, followed by each layer row by row, and by the
+ * collision layer if the flag is 1.*/
+public class MapFile {
+
+    public static final int MAGIC = 0x4D415053; // "MAPS"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+    public final int rows;
+    public final int cols;
+    public final ArrayList<int[][]> layers;
+    public final int[][] collisions; // null if the map has no collision layer
+
+    /** Creates a MapFile from already loaded layers.
+     * @param rows Height of the map in tiles.
+     * @param cols Width of the map in tiles.
+     * @param layers Tile layers, indexed by [row][col].
+     * @param collisions Collision layer, or null.*/
+    public MapFile(int rows, int cols, ArrayList<int[][]> layers, int[][] collisions) {
+        this.rows = rows;
+        this.cols = cols;
+        this.layers = layers;
+        this.collisions = collisions;
+    }
+
+    /** Loads a compiled map from the classpath.
+     * @param path Path to the map in the classpath.
+     * @return the loaded map, or null if there is no such resource.
+     * @throws IOException if the map can't be read or isn't a valid map.*/
+    public static MapFile read(String path) throws IOException {
+        InputStream is = MapFile.class.getResourceAsStream(path);
+        if(is == null) {
+            return null;
+        }
+
+        long start = System.nanoTime();
+        try (ReadableByteChannel channel = Channels.newChannel(is)) {
+            MapFile map = read(channel);
+            GamePanel.logger.log(Level.FINE, "Compiled Map Loaded: " + path + " in "
+                    + (System.nanoTime() - start) / 1000 + "us");
+            return map;
+        }
+    }
+
+    /** Reads a compiled map from a channel.
+     * @param channel Channel positioned at the start of the map.
+     * @return the loaded map.
+     * @throws IOException if the map can't be read or isn't a valid map.*/
+    public static MapFile read(ReadableByteChannel channel) throws IOException {
+
+        ByteBuffer header = readFully(channel, HEADER_SIZE);
+        if(header.getInt() != MAGIC) {
+            throw new IOException("Not a compiled map");
+        }
+        int version = header.getInt();
+        if(version != VERSION) {
+            throw new IOException("Unsupported map version " + version);
+        }
+        int rows = header.getInt();
+        int cols = header.getInt();
+        int layerCount = header.getInt();
+        boolean hasCollisions = header.getInt() == 1;
+        if(rows <= 0 || cols <= 0 || layerCount < 0) {
+            throw new IOException("Invalid map size " + rows + "x" + cols + "x" + layerCount);
+        }
+
+        int grids = layerCount + (hasCollisions ? 1 : 0);
+        ShortBuffer data = readFully(channel, grids * rows * cols * Short.BYTES).asShortBuffer();
+
+        short[] line = new short[cols];
+        ArrayList<int[][]> layers = new ArrayList<>(layerCount);
+        for(int layer = 0; layer < layerCount; layer++) {
+            layers.add(readGrid(data, rows, cols, line));
+        }
+        int[][] collisions = hasCollisions ? readGrid(data, rows, cols, line) : null;
+
+        return new MapFile(rows, cols, layers, collisions);
+    }
+
+    /** Writes the map in the compiled format.
+     * @param path File to write.
+     * @throws IOException if the file can't be written.*/
+    public void write(Path path) throws IOException {
+
+        List<int[][]> grids = new ArrayList<>(layers);
+        if(collisions != null) {
+            grids.add(collisions);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + grids.size() * rows * cols * Short.BYTES);
+        buffer.putInt(MAGIC)
+                .putInt(VERSION)
+                .putInt(rows)
+                .putInt(cols)
+                .putInt(layers.size())
+                .putInt(collisions != null ? 1 : 0);
+
+        for(int[][] grid : grids) {
+            for(int row = 0; row < rows; row++) {
+                for(int col = 0; col < cols; col++) {
+                    int value = grid[row][col];
+                    if(value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                        throw new IOException("Tile " + value + " doesn't fit in a short");
+                    }
+                    buffer.putShort((short) value);
+                }
+            }
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /** Reads a rows x cols grid of shorts into an int matrix.
+     * @param data Buffer positioned at the start of the grid.
+     * @param line Reusable buffer of cols shorts.*/
+    private static int[][] readGrid(ShortBuffer data, int rows, int cols, short[] line) {
+        int[][] grid = new int[rows][cols];
+        for(int row = 0; row < rows; row++) {
+            data.get(line);
+            int[] target = grid[row];
+            for(int col = 0; col < cols; col++) {
+                target[col] = line[col];
+            }
+        }
+        return grid;
+    }
+
+    /** Reads an exact amount of bytes from a channel.
+     * @param channel Channel to read from.
+     * @param size Amount of bytes to read.
+     * @return a buffer with the bytes, ready to be read.
+     * @throws IOException if the channel ends before.*/
+    private static ByteBuffer readFully(ReadableByteChannel channel, int size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while(buffer.hasRemaining()) {
+            if(channel.read(buffer) < 0) {
+                throw new IOException("Truncated map file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
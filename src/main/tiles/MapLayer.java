@@ -0,0 +1,54 @@
+package main.tiles;
+
+/** A single layer of tiles of a map, stored in the most compact form
+ * for its content. Layers are immutable, so they can be read from
+ * several threads.*/
+public interface MapLayer {
+
+    /** Returns the height of the layer in tiles.*/
+    int getRows();
+
+    /** Returns the width of the layer in tiles.*/
+    int getCols();
+
+    /** Returns the value at a position inside the layer.
+     * @param row Row of the tile.
+     * @param col Column of the tile.
+     * @return the tile, or -1 if empty.*/
+    int get(int row, int col);
+
+    /** Returns the approximate memory used by the layer in bytes.*/
+    long getBytes();
+
+    /** Stores a grid in the most compact layer for its content: values
+     * fitting in a byte (i.e. collision shapes) use a ByteLayer, mostly
+     * empty layers are run length encoded, and the rest use a ShortLayer.
+     * @param grid Grid of tiles, indexed by [row][col].
+     * @return the compact layer.*/
+    static MapLayer of(int[][] grid) {
+
+        int rows = grid.length;
+        int cols = grid[0].length;
+        boolean fitsByte = true;
+        int runs = 0;
+        for(int[] line : grid) {
+            for(int col = 0; col < cols; col++) {
+                int value = line[col];
+                if(value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+                    fitsByte = false;
+                }
+                if(col == 0 || value != line[col - 1]) {
+                    runs++;
+                }
+            }
+        }
+
+        // A run takes two shorts, so it pays off if there are few of them
+        long denseBytes = (long) rows * cols * (fitsByte ? Byte.BYTES : Short.BYTES);
+        long runBytes = (long) runs * 2 * Short.BYTES + (long) (rows + 1) * Integer.BYTES;
+        if(runBytes < denseBytes) {
+            return new RunLengthLayer(grid);
+        }
+        return fitsByte ? new ByteLayer(grid) : new ShortLayer(grid);
+    }
+}
@@ -0,0 +1,82 @@
+package main.tiles;
+
+import java.util.Arrays;
+
+/** Layer stored as runs of equal tiles along each row, for mostly empty
+ * layers such as the props. A tile is found with a binary search over
+ * the runs of its row.*/
+public class RunLengthLayer implements MapLayer {
+
+    private final int rows;
+    private final int cols;
+    private final int[] rowStart; // First run of each row, plus the total at the end
+    private final short[] runCol; // Column where each run starts
+    private final short[] runValue; // Tile of each run
+
+    /** Creates a RunLengthLayer with the content of a grid.
+     * @param grid Grid of tiles, indexed by [row][col].
+     * @throws IllegalArgumentException if a value doesn't fit in a short.*/
+    public RunLengthLayer(int[][] grid) {
+        rows = grid.length;
+        cols = grid[0].length;
+        rowStart = new int[rows + 1];
+
+        short[] starts = new short[Math.max(rows, 16)];
+        short[] values = new short[starts.length];
+        int runs = 0;
+        for(int row = 0; row < rows; row++) {
+            rowStart[row] = runs;
+            for(int col = 0; col < cols; col++) {
+                int value = grid[row][col];
+                if(value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                    throw new IllegalArgumentException("Tile " + value + " doesn't fit in a short");
+                }
+                if(col == 0 || value != grid[row][col - 1]) {
+                    if(runs == starts.length) {
+                        starts = Arrays.copyOf(starts, runs * 2);
+                        values = Arrays.copyOf(values, runs * 2);
+                    }
+                    starts[runs] = (short) col;
+                    values[runs] = (short) value;
+                    runs++;
+                }
+            }
+        }
+        rowStart[rows] = runs;
+
+        runCol = Arrays.copyOf(starts, runs);
+        runValue = Arrays.copyOf(values, runs);
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public int get(int row, int col) {
+
+        // Last run of the row starting at or before the column
+        int low = rowStart[row];
+        int high = rowStart[row + 1] - 1;
+        while(low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if(runCol[middle] <= col) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return runValue[low];
+    }
+
+    @Override
+    public long getBytes() {
+        return (long) rowStart.length * Integer.BYTES + (long) runCol.length * 2 * Short.BYTES;
+    }
+}
@@ -0,0 +1,47 @@
+package main.tiles;
+
+/** Layer stored as a flat row major array of shorts.*/
+public class ShortLayer implements MapLayer {
+
+    private final int rows;
+    private final int cols;
+    private final short[] tiles;
+
+    /** Creates a ShortLayer with the content of a grid.
+     * @param grid Grid of tiles, indexed by [row][col].
+     * @throws IllegalArgumentException if a value doesn't fit in a short.*/
+    public ShortLayer(int[][] grid) {
+        rows = grid.length;
+        cols = grid[0].length;
+        tiles = new short[rows * cols];
+        for(int row = 0; row < rows; row++) {
+            for(int col = 0; col < cols; col++) {
+                int value = grid[row][col];
+                if(value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+                    throw new IllegalArgumentException("Tile " + value + " doesn't fit in a short");
+                }
+                tiles[row * cols + col] = (short) value;
+            }
+        }
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public int get(int row, int col) {
+        return tiles[row * cols + col];
+    }
+
+    @Override
+    public long getBytes() {
+        return (long) tiles.length * Short.BYTES;
+    }
+}
@@ -19,8 +19,8 @@ public class TileManager implements Drawable {
     
     GamePanel gamePanel;
 
-    public Tile[] tiles;
-    public ArrayList<int[][]> map;
+    public volatile Tile[] tiles;
+    public volatile WorldMap world;
 
     final int LAYERS = 4; // Amount of layers in a map
 
@@ -28,22 +28,17 @@ public class TileManager implements Drawable {
     private boolean debugCollisions = false;
     // TODO: implement object debugger
 
+    /** Creates a TileManager. Nothing is loaded until loadTiles
+     * and the WorldManager gives it a world (see GamePanel.setUpGame).*/
     public TileManager(GamePanel gamePanel) {
         
         this.gamePanel = gamePanel;
-        
-        getTileSprite();
-
-        ArrayList<String> layerPaths = new ArrayList<>();
-        layerPaths.add("/main/res/maps/Map3/Map_3_Ground.csv");
-        layerPaths.add("/main/res/maps/Map3/Map_3_Level1.csv");
-        layerPaths.add("/main/res/maps/Map3/Map_3_Level2.csv");
-        layerPaths.add("/main/res/maps/Map3/Map_3_Props.csv");
-
-        layerPaths.add("/main/res/maps/Map2/Map_2_Obj.csv"); // TODO: Move this to the AssetSetter
 
-        loadMap(layerPaths);
+    }
 
+    /** Loads the tile sprites.*/
+    public void loadTiles() {
+        getTileSprite();
     }
 
     public void getTileSprite() {
@@ -59,108 +54,202 @@ public class TileManager implements Drawable {
             // Size of the individual tiles in the sprite-sheet
             int spriteSize = 32; 
 
-            // This will store all the possible tiles
-            this.tiles = new Tile[rows * cols];
+            // This will store all the possible tiles. It is only published
+            // once full, as it may be drawn while loading in the background
+            Tile[] sheet = new Tile[rows * cols];
 
             for(int i = 0; i < rows; i++) {
                 for(int j = 0; j < cols; j++) {
                     BufferedImage tileImage = spriteSheet.getSubimage(j * spriteSize, i * spriteSize, spriteSize, spriteSize);
-                    setUp((i * cols) + j, tileImage);
+                    sheet[(i * cols) + j] = scale(tileImage);
                 }
             }
+            this.tiles = sheet;
 
         } catch(IOException e) {
             GamePanel.logger.log(Level.SEVERE, "Failed Loading Tile Sprite Sheet", e);
         }
     }
 
-    // Helper method for scaling images
-    // This way, the draw method doesn't have to rescale the images every time
-    public void setUp(int index, BufferedImage image) {
+    // Helper method that creates a tile with an image scaled to the tile size
+    private Tile scale(BufferedImage image) {
         
         Utility util = new Utility();
         
         BufferedImage rescaledImage = util.scaleImage(image, gamePanel.tileSize, gamePanel.tileSize);
-        this.tiles[index] = new Tile(rescaledImage);
+        return new Tile(rescaledImage);
+    }
+
+    /** Reads the world of a map from its most efficient format available,
+     * without using it. It doesn't change the state of the tile manager,
+     * so maps can be read in the background while another one is played.
+     * @param map Map to read.
+     * @return the world of the map.*/
+    public WorldMap readWorld(GameMap map) {
+
+        // A chunked world is paged in from disk, a compiled map is fully loaded,
+        // and the CSV layers are only parsed if neither exists
+        WorldMap read = null;
+        if(map.chunkedPath != null) {
+            read = openChunkedWorld(map, map.chunkedPath);
+        }
+        if(read == null && map.compiledPath != null) {
+            read = openCompiledMap(map, map.compiledPath);
+        }
+        if(read == null) {
+            read = parseMap(map, map.layerPaths, map.collisionPath);
+        }
+        return read;
+    }
+
+    /** Opens a world compiled in chunks with the MapCompiler, which
+     * is paged in from disk while the player moves.
+     * @param map Map the world belongs to.
+     * @param path Path to the world in the classpath.
+     * @return the world, or null if it is missing or invalid.*/
+    private WorldMap openChunkedWorld(GameMap map, String path) {
+        try {
+            ChunkedWorldMap chunked = ChunkedWorldMap.open(path);
+            if(chunked == null) {
+                return null;
+            }
+            if(!matchesMap(chunked, map)) {
+                GamePanel.logger.log(Level.WARNING, "Chunked World Doesn't Match The Map: " + path);
+                chunked.close();
+                return null;
+            }
+            return chunked;
+        } catch(IOException e) {
+            GamePanel.logger.log(Level.SEVERE, "Failed Opening Chunked World " + path, e);
+            return null;
+        }
     }
 
-    public void loadMap(ArrayList<String> layerPaths) {
+    /** Loads the layers of a map compiled with the MapCompiler.
+     * @param map Map the layers belong to.
+     * @param path Path to the compiled map in the classpath.
+     * @return the world, or null if it is missing or invalid.*/
+    private WorldMap openCompiledMap(GameMap map, String path) {
+        try {
+            MapFile mapFile = MapFile.read(path);
+            if(mapFile == null) {
+                return null;
+            }
+            ArrayWorldMap compiled = new ArrayWorldMap(mapFile);
+            if(!matchesMap(compiled, map) || mapFile.collisions == null) {
+                GamePanel.logger.log(Level.WARNING, "Compiled Map Doesn't Match The Map: " + path);
+                return null;
+            }
+            GamePanel.logger.log(Level.INFO, "Loaded Compiled Map " + path + " (" + compiled.getBytes() + " bytes)");
+            return compiled;
+        } catch(IOException e) {
+            GamePanel.logger.log(Level.SEVERE, "Failed Loading Compiled Map " + path, e);
+            return null;
+        }
+    }
+
+    // Helper method that parses the CSV layers of a map
+    private WorldMap parseMap(GameMap map, ArrayList<String> layerPaths, String collisionPath) {
 
         // Initialize map layers
-        map = new ArrayList<int[][]>();
+        ArrayList<int[][]> layers = new ArrayList<int[][]>();
         for(int layer = 0; layer < LAYERS; layer++) {
-            map.add(new int[gamePanel.maxWorldRow][gamePanel.maxWorldCol]);
+            layers.add(loadLayer(layerPaths.get(layer), map.rows, map.cols));
         }
+        ArrayWorldMap loaded = new ArrayWorldMap(layers, loadLayer(collisionPath, map.rows, map.cols));
+        GamePanel.logger.log(Level.INFO, "Loaded Map " + map.id + " (" + loaded.getBytes() + " bytes)");
+        return loaded;
+    }
 
-        for(int layer = 0; layer < LAYERS; layer++) {
-            try {
-                InputStream is = getClass().getResourceAsStream(layerPaths.get(layer));
-                assert is != null;
-                BufferedReader br = new BufferedReader(new InputStreamReader(is));
-
-                for(int row = 0; row < gamePanel.maxWorldRow; row++) {
-                    String line = br.readLine();
-                    String[] numbers = line.split(",");
-
-                    for(int col = 0; col < gamePanel.maxWorldCol; col++) {
-                        int tileNum = Integer.parseInt(numbers[col]);
-                        map.get(layer)[row][col] = tileNum;
-                    }
-                }
+    // Helper method that parses a CSV layer of the size of a map
+    private int[][] loadLayer(String path, int rows, int cols) {
 
-            } catch (Exception e) {
-                GamePanel.logger.log(Level.SEVERE, "Failed Loading Tile Maps", e);
+        int[][] layer = new int[rows][cols];
+        try {
+            InputStream is = getClass().getResourceAsStream(path);
+            assert is != null;
+            BufferedReader br = new BufferedReader(new InputStreamReader(is));
+
+            for(int row = 0; row < rows; row++) {
+                String line = br.readLine();
+                String[] numbers = line.split(",");
+
+                for(int col = 0; col < cols; col++) {
+                    int tileNum = Integer.parseInt(numbers[col]);
+                    layer[row][col] = tileNum;
+                }
             }
+
+        } catch (Exception e) {
+            GamePanel.logger.log(Level.SEVERE, "Failed Loading Tile Maps", e);
         }
+        return layer;
+    }
+
+    // Helper method to check if a world has the size of its map and all its layers
+    private boolean matchesMap(WorldMap world, GameMap map) {
+        return world.getRows() == map.rows && world.getCols() == map.cols
+                && world.getLayerCount() >= LAYERS;
     }
 
     @Override
     public void draw(Graphics2D g2) {
 
+        // Still loading in the background
+        WorldMap world = this.world;
+        Tile[] tiles = this.tiles;
+        if(world == null || tiles == null) {
+            return;
+        }
+
         boolean xBlocked = playerOnEdge("X");
         boolean yBlocked = playerOnEdge("Y");
 
-        for(int row = 0; row < gamePanel.maxWorldRow; row++) {
-            for(int col = 0; col < gamePanel.maxWorldCol; col++) {
+        // Camera: world position of the top left corner of the screen
+        int cameraX;
+        int cameraY;
+
+        if(xBlocked) {
+            if(gamePanel.player.worldX < gamePanel.screenWidth) {
+                cameraX = 0;
+            } else {
+                cameraX = gamePanel.worldWidth - gamePanel.screenWidth;
+            }
+            gamePanel.player.screenXLocked = false;
+        } else {
+            cameraX = gamePanel.player.worldX - gamePanel.player.defaultScreenX;
+            gamePanel.player.screenXLocked = true;
+        }
 
-                // Camera
-                int worldX = col * gamePanel.tileSize;
-                int worldY = row * gamePanel.tileSize;
+        if(yBlocked) {
+            if(gamePanel.player.worldY < gamePanel.screenHeight) {
+                cameraY = 0;
+            } else {
+                cameraY = gamePanel.worldHeight - gamePanel.screenHeight;
+            }
+            gamePanel.player.screenYLocked = false;
+        } else {
+            cameraY = gamePanel.player.worldY - gamePanel.player.defaultScreenY;
+            gamePanel.player.screenYLocked = true;
+        }
 
-                int screenX;
-                int screenY;
+        // Only the tiles inside the screen are visited
+        int tileSize = gamePanel.tileSize;
+        int firstCol = Math.max(0, Math.floorDiv(cameraX, tileSize));
+        int firstRow = Math.max(0, Math.floorDiv(cameraY, tileSize));
+        int lastCol = Math.min(world.getCols() - 1, (cameraX + gamePanel.screenWidth) / tileSize);
+        int lastRow = Math.min(world.getRows() - 1, (cameraY + gamePanel.screenHeight) / tileSize);
 
-                if(xBlocked) {
-                    if(gamePanel.player.worldX < gamePanel.screenWidth) {
-                        screenX = worldX;
-                    } else {
-                        screenX = worldX - gamePanel.worldWidth + gamePanel.screenWidth;
-                    }
-                    gamePanel.player.screenXLocked = false;
-                } else {
-                    screenX = worldX - gamePanel.player.worldX + gamePanel.player.defaultScreenX;
-                    gamePanel.player.screenXLocked = true;
-                }
+        world.focus(gamePanel.player.worldY / tileSize, gamePanel.player.worldX / tileSize);
 
-                if(yBlocked) {
-                    if(gamePanel.player.worldY < gamePanel.screenHeight) {
-                        screenY = worldY;
-                    } else {
-                        screenY = worldY - gamePanel.worldHeight + gamePanel.screenHeight;
-                    }
-                    gamePanel.player.screenYLocked = false;
-                } else {
-                    screenY = worldY - gamePanel.player.worldY + gamePanel.player.defaultScreenY;
-                    gamePanel.player.screenYLocked = true;
-                }
-                
-                // The tiles are only painted if they are inside the screen
-                if(tileOnScreen(worldX, worldY)) {
-                    for(int[][] layer : map) {
-                        if (layer[row][col] != -1) {
-                            g2.drawImage(tiles[layer[row][col]].image, screenX, screenY,
-                                    gamePanel.tileSize, gamePanel.tileSize, null);
-                        }
+        for(int layer = 0; layer < LAYERS; layer++) {
+            for(int row = firstRow; row <= lastRow; row++) {
+                int screenY = row * tileSize - cameraY;
+                for(int col = firstCol; col <= lastCol; col++) {
+                    int tile = world.getTile(layer, row, col);
+                    if(tile != -1) {
+                        g2.drawImage(tiles[tile].image, col * tileSize - cameraX, screenY,
+                                tileSize, tileSize, null);
                     }
                 }
             }
@@ -173,18 +262,6 @@ public class TileManager implements Drawable {
         
     }
 
-    private boolean tileOnScreen(int worldX, int worldY) {
-
-        // Accounts for the deviation of the player position in the screen from its default position
-        int screenXDelta = gamePanel.player.defaultScreenX - gamePanel.player.screenX;
-        int screenYDelta = gamePanel.player.defaultScreenY - gamePanel.player.screenY;
-
-        return worldX + gamePanel.tileSize > gamePanel.player.worldX - gamePanel.player.defaultScreenX + screenXDelta &&
-                         worldX - gamePanel.tileSize < gamePanel.player.worldX + gamePanel.player.defaultScreenX + screenXDelta &&
-                         worldY + gamePanel.tileSize > gamePanel.player.worldY - gamePanel.player.defaultScreenY + screenYDelta &&
-                         worldY - gamePanel.tileSize < gamePanel.player.worldY + gamePanel.player.defaultScreenY + screenYDelta;
-    }
-
     // Helper method to check if the player is on an edge of the map
     private boolean playerOnEdge(String axis) {
 
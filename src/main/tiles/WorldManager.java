@@ -0,0 +1,279 @@
+package main.tiles;
+
+import main.GamePanel;
+import main.assets.SuperAsset;
+import main.entities.Entity;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+/** Manages the maps of the game and the one the player is in. When the
+ * player gets close to a transition, the map on the other side is read
+ * in the background, so when the player steps on it the switch is done
+ * in a single tick without touching the disk. If the player gets there
+ * before the map is read, the switch waits for it without stopping the
+ * game loop.
+ * Only the worlds of the current map and the maps next to it are kept.*/
+public class WorldManager {
+
+    public static final String DEFAULT_ID = "Map3";
+
+    public final int PREFETCH_DISTANCE = 8; // Tiles to a transition at which its map starts being read
+
+    GamePanel gamePanel;
+
+    private final LinkedHashMap<String, GameMap> maps = new LinkedHashMap<>();
+    private final HashMap<String, CompletableFuture<WorldMap>> worlds = new HashMap<>();
+    private final ExecutorService reader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Map Reader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private GameMap current;
+    private GameMap.Transition pending; // Transition waiting for its map to be read
+
+    /** Creates a WorldManager with the maps of the game.*/
+    public WorldManager(GamePanel gamePanel) {
+        this.gamePanel = gamePanel;
+        setMaps();
+        current = maps.get(DEFAULT_ID);
+    }
+
+    /** Registers the maps of the game and their transitions. Map2.2 has
+     * no level data (entities, assets or events) yet, so no transition
+     * leads to it.*/
+    private void setMaps() {
+
+        GameMap map3 = new GameMap("Map3", 101, 91);
+        map3.layerPaths.add("/main/res/maps/Map3/Map_3_Ground.csv");
+        map3.layerPaths.add("/main/res/maps/Map3/Map_3_Level1.csv");
+        map3.layerPaths.add("/main/res/maps/Map3/Map_3_Level2.csv");
+        map3.layerPaths.add("/main/res/maps/Map3/Map_3_Props.csv");
+        map3.collisionPath = "/main/res/maps/Map3/Map_3_Collisions.csv";
+        map3.compiledPath = "/main/res/maps/Map3/Map_3.map";
+        map3.chunkedPath = "/main/res/maps/Map3/Map_3.world";
+        map3.entitiesPath = "/main/res/entities/entities.csv";
+        map3.spawnCol = 90;
+        map3.spawnRow = 85;
+        register(map3);
+
+        GameMap map2 = new GameMap("Map2.2", 40, 40);
+        map2.layerPaths.add("/main/res/maps/Map2.2/Map_02_Ground.csv");
+        map2.layerPaths.add("/main/res/maps/Map2.2/Map_02_Level1.csv");
+        map2.layerPaths.add("/main/res/maps/Map2.2/Map_02_Level2.csv");
+        map2.layerPaths.add("/main/res/maps/Map2.2/Map_02_Props.csv");
+        map2.collisionPath = "/main/res/maps/Map2.2/Map_02_Collisions.csv";
+        map2.spawnCol = 20;
+        map2.spawnRow = 35;
+        register(map2);
+    }
+
+    /** Adds a map to the game.
+     * @param map Map to add. Replaces any map with the same id.*/
+    public synchronized void register(GameMap map) {
+        maps.put(map.id, map);
+    }
+
+    /** Returns the map with a given id, or null if it doesn't exist.
+     * @param id Id of the map.*/
+    public synchronized GameMap get(String id) {
+        return maps.get(id);
+    }
+
+    /** Returns the maps of the game.*/
+    public synchronized ArrayList<GameMap> getMaps() {
+        return new ArrayList<>(maps.values());
+    }
+
+    /** Returns the map the player is in.*/
+    public synchronized GameMap getCurrent() {
+        return current;
+    }
+
+    /** Reads the world of the current map and uses it, blocking
+     * until it is read (i.e. from the resource loader).*/
+    public void loadCurrent() {
+        GameMap map = getCurrent();
+        use(map, prefetch(map.id).join());
+    }
+
+    /** Starts reading the world of a map in the background,
+     * unless it is already read or being read.
+     * @param id Id of the map.
+     * @return the future world of the map.
+     * @throws IllegalArgumentException if the map doesn't exist.*/
+    public synchronized CompletableFuture<WorldMap> prefetch(String id) {
+        GameMap map = maps.get(id);
+        if(map == null) {
+            throw new IllegalArgumentException("Unknown Map: " + id);
+        }
+        return worlds.computeIfAbsent(id, key -> CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            WorldMap world = gamePanel.tileManager.readWorld(map);
+            GamePanel.logger.log(Level.INFO, "Map " + id + " Read in " + (System.nanoTime() - start) / 1000000 + " ms");
+            return world;
+        }, reader));
+    }
+
+    /** Returns true if the world of a map is read and ready to be used.
+     * @param id Id of the map.*/
+    public synchronized boolean isLoaded(String id) {
+        CompletableFuture<WorldMap> world = worlds.get(id);
+        return world != null && world.isDone();
+    }
+
+    /** Checks the position of the player against the transitions of the
+     * current map, prefetching the maps of the close ones and moving the
+     * player if it stepped on one. Must be called from the game thread.*/
+    public void update() {
+
+        if(pending != null) {
+            travel(pending);
+            return;
+        }
+
+        int tileSize = gamePanel.tileSize;
+        int col = (gamePanel.player.worldX + tileSize / 2) / tileSize;
+        int row = (gamePanel.player.worldY + tileSize / 2) / tileSize;
+
+        for(GameMap.Transition transition : getCurrent().transitions) {
+            int distance = Math.max(Math.abs(transition.col - col), Math.abs(transition.row - row));
+            if(distance <= PREFETCH_DISTANCE) {
+                prefetch(transition.target);
+            }
+            if(distance == 0) {
+                travel(transition);
+                return;
+            }
+        }
+    }
+
+    /** Moves the player to a map, waiting for its world to be read.
+     * Meant for the title screen, not for the game loop.
+     * @param id Id of the map.
+     * @param col Column where the player appears.
+     * @param row Row where the player appears.*/
+    public void enter(String id, int col, int row) {
+        GameMap map = get(id);
+        if(map == null) {
+            throw new IllegalArgumentException("Unknown Map: " + id);
+        }
+        pending = null;
+        if(map != getCurrent()) {
+            enter(map, prefetch(id).join(), col, row);
+        } else {
+            gamePanel.player.worldX = col * gamePanel.tileSize;
+            gamePanel.player.worldY = row * gamePanel.tileSize;
+        }
+    }
+
+    /** Moves the player to the default map, i.e. before loading a saved game.*/
+    public void reset() {
+        GameMap map = get(DEFAULT_ID);
+        enter(DEFAULT_ID, map.spawnCol, map.spawnRow);
+    }
+
+    /** Follows a transition if its map is already read,
+     * otherwise it is retried the next tick.
+     * @param transition Transition to follow.*/
+    private void travel(GameMap.Transition transition) {
+        CompletableFuture<WorldMap> world = prefetch(transition.target);
+        if(!world.isDone()) {
+            pending = transition;
+            return;
+        }
+        pending = null;
+        enter(get(transition.target), world.join(), transition.targetCol, transition.targetRow);
+    }
+
+    /** Swaps the current map for another one whose world is read. The
+     * entities and assets of the map the player leaves are kept in it,
+     * and the ones of the new map are restored (or loaded if it is the
+     * first time the player enters it).
+     * @param map Map to enter.
+     * @param world World of the map.
+     * @param col Column where the player appears.
+     * @param row Row where the player appears.*/
+    private void enter(GameMap map, WorldMap world, int col, int row) {
+
+        GameMap previous = getCurrent();
+        previous.entities = gamePanel.entityManager.changeWorld(map.cols, map.rows);
+        previous.assets = gamePanel.assets;
+
+        use(map, world);
+
+        gamePanel.assets = map.assets != null ? map.assets : new SuperAsset[previous.assets.length];
+        if(map.entities != null) {
+            for(Entity entity : map.entities) {
+                gamePanel.entityManager.addEntity(entity);
+            }
+            map.entities = null;
+        } else if(map.entitiesPath != null) {
+            gamePanel.entityManager.loadEnemies(map.entitiesPath);
+        }
+
+        gamePanel.player.worldX = col * gamePanel.tileSize;
+        gamePanel.player.worldY = row * gamePanel.tileSize;
+
+        evict();
+        GamePanel.logger.log(Level.INFO, "Entered Map " + map.id + " at " + col + ", " + row);
+    }
+
+    /** Makes a map and its world the current ones.
+     * @param map Map to use.
+     * @param world World of the map.*/
+    private void use(GameMap map, WorldMap world) {
+        synchronized(this) {
+            current = map;
+        }
+        gamePanel.setWorldSize(world.getCols(), world.getRows());
+        gamePanel.tileManager.world = world;
+        gamePanel.pathFinder.loadMap();
+        gamePanel.lineOfSight.loadMap();
+    }
+
+    /** Drops the worlds of the maps that aren't the current
+     * one or reachable from it, closing the chunked ones.*/
+    private synchronized void evict() {
+        Iterator<Map.Entry<String, CompletableFuture<WorldMap>>> it = worlds.entrySet().iterator();
+        while(it.hasNext()) {
+            Map.Entry<String, CompletableFuture<WorldMap>> entry = it.next();
+            if(entry.getKey().equals(current.id) || isNeighbour(entry.getKey()) || !entry.getValue().isDone()) {
+                continue;
+            }
+            it.remove();
+            WorldMap world = entry.getValue().join();
+            if(world instanceof ChunkedWorldMap) {
+                try {
+                    ((ChunkedWorldMap) world).close();
+                } catch(IOException e) {
+                    GamePanel.logger.log(Level.WARNING, "Failed Closing Chunked World " + entry.getKey(), e);
+                }
+            }
+        }
+    }
+
+    // Helper method to check if a map can be reached from the current one
+    private boolean isNeighbour(String id) {
+        for(GameMap.Transition transition : current.transitions) {
+            if(transition.target.equals(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns the ids of the maps whose worlds are kept.*/
+    public synchronized ArrayList<String> getLoadedMaps() {
+        return new ArrayList<>(worlds.keySet());
+    }
+}
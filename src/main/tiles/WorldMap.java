@@ -0,0 +1,49 @@
+package main.tiles;
+
+/** Read access to the tiles and collisions of the world, independent of
+ * how they are stored. Every subsystem reading the map (drawing,
+ * collisions, path finding) goes through it, so the map can be kept in
+ * memory or paged in from disk. Implementations must allow concurrent
+ * reads, since enemies read the map from the threads of the think phase.*/
+public interface WorldMap {
+
+    /** Returns the height of the world in tiles.*/
+    int getRows();
+
+    /** Returns the width of the world in tiles.*/
+    int getCols();
+
+    /** Returns the amount of tile layers.*/
+    int getLayerCount();
+
+    /** Returns the tile of a layer at a given position.
+     * @param layer Index of the layer.
+     * @param row Row of the tile.
+     * @param col Column of the tile.
+     * @return the tile index, or -1 if empty or out of the world.*/
+    int getTile(int layer, int row, int col);
+
+    /** Returns the collision shape at a given position.
+     * @param row Row of the tile.
+     * @param col Column of the tile.
+     * @return the collision shape index, or -1 if there is none.*/
+    int getCollision(int row, int col);
+
+    /** Returns true if a tile blocks movement. Tiles outside
+     * the world are solid.
+     * @param row Row of the tile.
+     * @param col Column of the tile.*/
+    default boolean isSolid(int row, int col) {
+        if(row < 0 || col < 0 || row >= getRows() || col >= getCols()) {
+            return true;
+        }
+        return getCollision(row, col) != -1;
+    }
+
+    /** Hints the area of the world that is going to be used, so the
+     * storage can have it ready. Does nothing by default.
+     * @param row Row at the center of the area.
+     * @param col Column at the center of the area.*/
+    default void focus(int row, int col) {
+    }
+}
@@ -0,0 +1,120 @@
+package main;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+/** Binary save backend test.*/
+public class BinarySaveBackendTest {
+
+    private FakeCatalogue catalogue;
+    private BinarySaveBackend backend;
+
+    /** List of games with unique names, like the GAMES table. */
+    private static class FakeCatalogue extends SqliteSaveBackend {
+
+        final HashMap<String, Integer> games = new HashMap<>();
+        int inserts = 0;
+
+        FakeCatalogue() {
+            super(null);
+        }
+
+        @Override
+        int writeGame(Integer gameCode, SaveSnapshot snapshot) throws SQLException {
+            if (gameCode != null) {
+                return gameCode;
+            }
+            if (games.containsKey(snapshot.gameName)) {
+                throw new SQLException("UNIQUE constraint failed: GAMES.NAME");
+            }
+            inserts++;
+            games.put(snapshot.gameName, games.size() + 1);
+            return games.size();
+        }
+
+        @Override
+        void removeGame(int gameCode) {
+            games.values().remove(gameCode);
+        }
+    }
+
+    private static SaveSnapshot createSnapshot(long gameToken, int playerX) {
+        return new SaveSnapshot(null, gameToken, "New Game", "2024-05-01", "Map3", playerX, 0, 100, 100,
+                new ArrayList<>(), new ArrayList<>(), null);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        Path directory = Files.createTempDirectory("saves");
+        directory.toFile().deleteOnExit();
+        catalogue = new FakeCatalogue();
+        backend = new BinarySaveBackend(null, catalogue, directory, true);
+    }
+
+    @Test
+    public void queuedFirstSavesTest() throws Exception {
+
+        // Both saves are captured before the first one is written, so neither has a code
+        SaveSnapshot first = createSnapshot(1, 64);
+        SaveSnapshot second = createSnapshot(1, 128);
+
+        ExecutorService saveThread = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<Integer> firstCode = CompletableFuture.supplyAsync(() -> write(first), saveThread);
+            CompletableFuture<Integer> secondCode = CompletableFuture.supplyAsync(() -> write(second), saveThread);
+
+            assertEquals(firstCode.get(), secondCode.get());
+            assertEquals(1, catalogue.inserts);
+            assertEquals(128, backend.read(secondCode.get()).playerX);
+        } finally {
+            saveThread.shutdown();
+        }
+    }
+
+    @Test
+    public void sameNameTest() throws Exception {
+        int code = backend.write(createSnapshot(1, 64));
+
+        // Another new game with the same name isn't saved over the first one
+        try {
+            backend.write(createSnapshot(2, 128));
+            fail("Saved a new game under the name of another one");
+        } catch (IOException e) {
+            assertEquals(1, catalogue.inserts);
+        }
+        assertEquals(64, backend.read(code).playerX);
+    }
+
+    @Test
+    public void deletedGameTest() throws Exception {
+        int code = backend.write(createSnapshot(1, 64));
+        backend.delete(code);
+        catalogue.removeGame(code);
+
+        // The same name is a new game once the old one is deleted
+        assertNull(backend.read(code));
+        int newCode = backend.write(createSnapshot(2, 128));
+        assertEquals(2, catalogue.inserts);
+        assertEquals(128, backend.read(newCode).playerX);
+    }
+
+    private int write(SaveSnapshot snapshot) {
+        try {
+            return backend.write(snapshot);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
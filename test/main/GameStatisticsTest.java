@@ -0,0 +1,106 @@
+package main;
+
+import main.items.ITEM_ironSword;
+import main.items.ITEM_shield;
+import main.items.ITEM_woodenSword;
+import main.items.SuperItem;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/** Gameplay statistics counters test.*/
+public class GameStatisticsTest {
+
+    private static final int FPS = 60;
+
+    @Test
+    public void copyTest() {
+        GameStatistics statistics = new GameStatistics();
+        statistics.kills = 3;
+        statistics.damageTaken = 25;
+        statistics.itemsPickedUp = 2;
+        statistics.ticksPlayed = 600;
+        statistics.distanceWalked = 1280;
+
+        GameStatistics copy = statistics.copy();
+        statistics.kills++;
+        statistics.ticksPlayed++;
+
+        assertEquals(3, copy.kills);
+        assertEquals(25, copy.damageTaken);
+        assertEquals(2, copy.itemsPickedUp);
+        assertEquals(600, copy.ticksPlayed);
+        assertEquals(1280, copy.distanceWalked);
+    }
+
+    @Test
+    public void killTest() {
+        GameStatistics statistics = new GameStatistics();
+
+        // Hits keep landing on the dead enemy until it is removed
+        statistics.countKill(false);
+        for (int i = 0; i < 4; i++) {
+            statistics.countKill(true);
+        }
+        assertEquals(1, statistics.kills);
+    }
+
+    @Test
+    public void damageTest() {
+        GameStatistics statistics = new GameStatistics();
+        statistics.countDamage(10, false);
+        statistics.countDamage(10, true);
+        assertEquals(10, statistics.damageTaken);
+    }
+
+    @Test
+    public void pickUpTest() {
+        GameStatistics statistics = new GameStatistics();
+        SuperItem woodenSword = new ITEM_woodenSword();
+        SuperItem ironSword = new ITEM_ironSword();
+        SuperItem shield = new ITEM_shield();
+
+        // Removed from the world, or swapped for the old sword
+        statistics.countPickUp(woodenSword, null);
+        statistics.countPickUp(ironSword, woodenSword);
+        assertEquals(2, statistics.itemsPickedUp);
+
+        // Removed from the middle of a chest, so the next item takes its slot
+        ArrayList<SuperItem> chest = new ArrayList<>(Arrays.asList(shield, ironSword));
+        chest.remove(0);
+        statistics.countPickUp(shield, chest.get(0));
+        assertEquals(3, statistics.itemsPickedUp);
+
+        // An item the player can't take stays in its slot
+        statistics.countPickUp(ironSword, ironSword);
+        assertEquals(3, statistics.itemsPickedUp);
+    }
+
+    @Test
+    public void secondsPlayedTest() {
+        GameStatistics statistics = new GameStatistics();
+        statistics.ticksPlayed = 10 * FPS + FPS - 1;
+        assertEquals(10, statistics.getSecondsPlayed(FPS));
+
+        statistics.setSecondsPlayed(90, FPS);
+        assertEquals(90 * FPS, statistics.ticksPlayed);
+    }
+
+    @Test
+    public void snapshotStateTest() {
+        GameStatistics statistics = new GameStatistics();
+        SaveSnapshot first = new SaveSnapshot(1, "Game", "2024-01-01", "Map3", 0, 0, 100, 100, new ArrayList<>(),
+                new ArrayList<>(), statistics.copy());
+        statistics.ticksPlayed += FPS;
+        SaveSnapshot second = new SaveSnapshot(1, "Game", "2024-01-01", "Map3", 0, 0, 100, 100, new ArrayList<>(),
+                new ArrayList<>(), statistics.copy());
+
+        // Only playing time passed, so there is nothing new to save but the totals
+        assertTrue(first.sameState(second));
+        assertEquals(FPS, second.withGameCode(2).statistics.ticksPlayed);
+        assertNull(second.withGameCode(2).withGameCode(null).gameCode);
+    }
+}
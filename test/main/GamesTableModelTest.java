@@ -0,0 +1,158 @@
+package main;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/** Paged table of saved games test.*/
+public class GamesTableModelTest {
+
+    private static final int GAMES = 1000;
+
+    private List<String> queries;
+    private GamesTableModel model;
+
+    /** Source with games of even codes, so codes and positions differ. */
+    private class FakeSource implements GamesTableModel.Source {
+
+        private final ArrayList<GameRecord> games = new ArrayList<>();
+
+        FakeSource() {
+            for (int i = 0; i < GAMES; i++) {
+                games.add(new GameRecord(2 * (i + 1), "Game " + i, "2024-01-01"));
+            }
+        }
+
+        @Override
+        public int count() {
+            return games.size();
+        }
+
+        @Override
+        public List<GameRecord> after(int gameCode, int limit) {
+            queries.add("after " + gameCode);
+            ArrayList<GameRecord> page = new ArrayList<>();
+            for (GameRecord game : games) {
+                if (game.gameCode > gameCode && page.size() < limit) {
+                    page.add(game);
+                }
+            }
+            return page;
+        }
+
+        @Override
+        public List<GameRecord> before(int gameCode, int limit) {
+            queries.add("before " + gameCode);
+            ArrayList<GameRecord> page = new ArrayList<>();
+            for (int i = games.size() - 1; i >= 0 && page.size() < limit; i--) {
+                if (games.get(i).gameCode < gameCode) {
+                    page.add(0, games.get(i));
+                }
+            }
+            return page;
+        }
+
+        @Override
+        public List<GameRecord> at(int offset, int limit) {
+            queries.add("at " + offset);
+            return new ArrayList<>(games.subList(offset, Math.min(offset + limit, games.size())));
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        queries = Collections.synchronizedList(new ArrayList<>());
+        model = new GamesTableModel(new FakeSource());
+        SwingUtilities.invokeAndWait(model::reload);
+        waitFor(() -> model.getRowCount() == GAMES);
+    }
+
+    /** Polls a condition on the event dispatch thread until it is true. */
+    private void waitFor(Condition condition) throws Exception {
+        boolean[] result = new boolean[1];
+        for (int i = 0; i < 500; i++) {
+            SwingUtilities.invokeAndWait(() -> result[0] = condition.test());
+            if (result[0]) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Timed out");
+    }
+
+    private interface Condition {
+        boolean test();
+    }
+
+    private Object valueAt(int row, int column) throws Exception {
+        Object[] value = new Object[1];
+        SwingUtilities.invokeAndWait(() -> value[0] = model.getValueAt(row, column));
+        return value[0];
+    }
+
+    @Test
+    public void emptyUntilCountedTest() {
+        GamesTableModel empty = new GamesTableModel(new FakeSource());
+        assertEquals(0, empty.getRowCount());
+        assertNull(empty.getValueAt(0, 0));
+        assertTrue(queries.isEmpty());
+    }
+
+    @Test
+    public void keysetPagesTest() throws Exception {
+
+        assertNull(valueAt(0, 0));
+        waitFor(() -> model.getValueAt(0, 0) != null);
+        assertEquals(2, valueAt(0, 0));
+        assertEquals("Game 49", valueAt(49, 1));
+
+        // The next page is read in advance after the last code of the first one
+        waitFor(() -> model.isCached(1));
+        assertEquals(102, valueAt(50, 0));
+        assertEquals("after " + Integer.MIN_VALUE, queries.get(0));
+        assertEquals("after 100", queries.get(1));
+    }
+
+    @Test
+    public void jumpTest() throws Exception {
+
+        // A far page is read by position, and the one before it by its first code
+        int row = 500;
+        valueAt(row, 0);
+        waitFor(() -> model.getValueAt(row, 0) != null);
+        assertEquals(2 * (row + 1), valueAt(row, 0));
+        assertTrue(queries.contains("at " + row));
+
+        valueAt(row - 1, 0);
+        waitFor(() -> model.getValueAt(row - 1, 0) != null);
+        assertEquals(2 * row, valueAt(row - 1, 0));
+        assertTrue(queries.contains("before " + (2 * (row + 1))));
+    }
+
+    @Test
+    public void cacheLimitTest() throws Exception {
+
+        for (int page = 0; page < GamesTableModel.MAX_PAGES + 4; page++) {
+            int row = page * GamesTableModel.PAGE_SIZE;
+            valueAt(row, 0);
+            waitFor(() -> model.getValueAt(row, 0) != null);
+        }
+
+        int[] cached = new int[1];
+        SwingUtilities.invokeAndWait(() -> {
+            for (int page = 0; page < GAMES / GamesTableModel.PAGE_SIZE; page++) {
+                if (model.isCached(page)) {
+                    cached[0]++;
+                }
+            }
+        });
+        assertTrue(cached[0] <= GamesTableModel.MAX_PAGES);
+        assertFalse(model.isCached(0));
+    }
+}
@@ -0,0 +1,52 @@
+package main;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/** Background resource loader test.*/
+public class ResourceLoaderTest {
+
+    @Test
+    public void dependencyOrderTest() {
+
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        ResourceLoader loader = new ResourceLoader(4)
+                .add("a", () -> order.add("a"))
+                .add("b", () -> order.add("b"))
+                .add("c", () -> order.add("c"), "a", "b")
+                .add("d", () -> order.add("d"), "c");
+
+        assertEquals(0, loader.getProgress(), 0);
+        loader.await();
+
+        assertTrue(loader.isDone());
+        assertTrue(loader.isLoaded("d"));
+        assertEquals(1, loader.getProgress(), 0);
+        assertEquals(4, order.size());
+        assertTrue(order.indexOf("c") > order.indexOf("a"));
+        assertTrue(order.indexOf("c") > order.indexOf("b"));
+        assertEquals("d", order.get(3));
+    }
+
+    @Test
+    public void failedResourceTest() {
+
+        ResourceLoader loader = new ResourceLoader(2)
+                .add("broken", () -> { throw new IllegalStateException("Broken resource"); })
+                .add("next", () -> { }, "broken");
+        loader.await();
+
+        assertTrue(loader.isLoaded("next"));
+        assertEquals(1, loader.getProgress(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownDependencyTest() {
+        new ResourceLoader().add("a", () -> { }, "b");
+    }
+}
@@ -0,0 +1,109 @@
+package main;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/** Binary save format test.*/
+public class SaveFileTest {
+
+    private static SaveSnapshot createSnapshot(int entityCount) {
+        ArrayList<SaveSnapshot.EntityRecord> entities = new ArrayList<>();
+        for (int i = 0; i < entityCount; i++) {
+            entities.add(new SaveSnapshot.EntityRecord(i + 1, i % 2 == 0 ? "SKELETON" : "ORC", i * 48, 4800 - i));
+        }
+        return new SaveSnapshot(7, "Brave Ñandú", "2024-05-01", 4320, 4080, 5, 80, entities,
+                new ArrayList<>(Arrays.asList("Apple", "Bow", "Apple")));
+    }
+
+    private static Path createFile() throws IOException {
+        File file = File.createTempFile("game", ".sav");
+        file.deleteOnExit();
+        return file.toPath();
+    }
+
+    private static void assertSameSnapshot(SaveSnapshot expected, SaveSnapshot actual) {
+        assertEquals(expected.gameCode, actual.gameCode);
+        assertEquals(expected.gameName, actual.gameName);
+        assertEquals(expected.date, actual.date);
+        assertTrue(expected.sameState(actual));
+    }
+
+    @Test
+    public void writeReadTest() throws Exception {
+        SaveSnapshot snapshot = createSnapshot(100);
+        Path path = createFile();
+
+        int size = SaveFile.write(snapshot, path, false);
+        assertEquals(path.toFile().length(), size);
+        assertSameSnapshot(snapshot, SaveFile.read(path));
+    }
+
+    @Test
+    public void compressedTest() throws Exception {
+        SaveSnapshot snapshot = createSnapshot(10000);
+        Path path = createFile();
+
+        int plain = SaveFile.write(snapshot, path, false);
+        int compressed = SaveFile.write(snapshot, path, true);
+        assertTrue(compressed < plain);
+        assertSameSnapshot(snapshot, SaveFile.read(path));
+    }
+
+    @Test
+    public void newGameTest() throws Exception {
+        SaveSnapshot snapshot = createSnapshot(0).withGameCode(null);
+        Path path = createFile();
+
+        SaveFile.write(snapshot, path, true);
+        SaveSnapshot read = SaveFile.read(path);
+        assertNull(read.gameCode);
+        assertTrue(read.entities.isEmpty());
+        assertSameSnapshot(snapshot, read);
+    }
+
+    @Test
+    public void mapsTest() throws Exception {
+        ArrayList<SaveSnapshot.EntityRecord> entities = new ArrayList<>();
+        entities.add(new SaveSnapshot.EntityRecord(1, "Map3", "enemy", 480, 960));
+        entities.add(new SaveSnapshot.EntityRecord(2, "Map2.2", "enemy", 64, 128));
+        SaveSnapshot snapshot = new SaveSnapshot(3, "Game", "2024-05-01", "Map2.2", 1280, 2240, 100, 100,
+                entities, new ArrayList<>(), null);
+        Path path = createFile();
+
+        SaveFile.write(snapshot, path, true);
+        SaveSnapshot read = SaveFile.read(path);
+        assertEquals("Map2.2", read.mapId);
+        assertEquals("Map3", read.entities.get(0).mapId);
+        assertEquals("Map2.2", read.entities.get(1).mapId);
+        assertSameSnapshot(snapshot, read);
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptedTest() throws Exception {
+        Path path = createFile();
+        SaveFile.write(createSnapshot(10), path, false);
+
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(SaveFile.HEADER_SIZE + 40);
+            file.write(0x55);
+        }
+        SaveFile.read(path);
+    }
+
+    @Test(expected = IOException.class)
+    public void notASaveTest() throws Exception {
+        Path path = createFile();
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.write(new byte[SaveFile.HEADER_SIZE]);
+        }
+        SaveFile.read(path);
+    }
+}
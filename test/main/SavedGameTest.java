@@ -0,0 +1,123 @@
+package main;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/** Delta save diff test.*/
+public class SavedGameTest {
+
+    private static final int CODE = 4;
+    private static final long TOKEN = 9;
+    private static final long LAST_ROW = 100;
+
+    private SavedGame base;
+
+    private static SaveSnapshot createSnapshot(SaveSnapshot.EntityRecord... entities) {
+        return new SaveSnapshot(CODE, TOKEN, "Game", "2024-05-01", "Map3", 480, 960, 100, 100,
+                new ArrayList<>(Arrays.asList(entities)), new ArrayList<>(Arrays.asList("Apple")), null);
+    }
+
+    @Before
+    public void setUp() {
+        // Last save with entities 1, 2 and 3 in rows 11, 12 and 13
+        SaveSnapshot first = createSnapshot(
+                new SaveSnapshot.EntityRecord(1, "Map3", "enemy", 10, 10),
+                new SaveSnapshot.EntityRecord(2, "Map3", "enemy", 20, 20),
+                new SaveSnapshot.EntityRecord(3, "Map3", "enemy", 30, 30));
+        base = SavedGame.after(null, CODE, first, 10);
+    }
+
+    @Test
+    public void unchangedTest() {
+        SaveSnapshot same = createSnapshot(
+                new SaveSnapshot.EntityRecord(1, "Map3", "enemy", 10, 10),
+                new SaveSnapshot.EntityRecord(2, "Map3", "enemy", 20, 20),
+                new SaveSnapshot.EntityRecord(3, "Map3", "enemy", 30, 30));
+        assertTrue(SavedGame.diff(base, same).isEmpty());
+    }
+
+    @Test
+    public void entitiesTest() {
+        // 1 moved, 2 changed type, 3 removed, 4 new and 5 moved to another map (as a new one)
+        SaveSnapshot snapshot = createSnapshot(
+                new SaveSnapshot.EntityRecord(1, "Map3", "enemy", 15, 10),
+                new SaveSnapshot.EntityRecord(2, "Map3", "brute", 20, 20),
+                new SaveSnapshot.EntityRecord(4, "Map3", "scout", 40, 40),
+                new SaveSnapshot.EntityRecord(5, "Map2.2", "enemy", 50, 50));
+        SavedGame.Delta delta = SavedGame.diff(base, snapshot);
+
+        assertFalse(delta.replaced);
+        assertFalse(delta.gameChanged);
+        assertFalse(delta.playerChanged);
+        assertFalse(delta.itemsChanged);
+
+        assertEquals(2, delta.updated.size());
+        assertEquals(11, delta.updated.get(0).row);
+        assertEquals(15, delta.updated.get(0).x);
+        assertEquals(12, delta.updated.get(1).row);
+        assertEquals("brute", delta.updated.get(1).type);
+
+        assertEquals(1, delta.deleted.size());
+        assertEquals(13, delta.deleted.get(0).row);
+
+        assertEquals(2, delta.inserted.size());
+        assertEquals(4, delta.inserted.get(0).saveId);
+        assertEquals(5, delta.inserted.get(1).saveId);
+
+        // The new entities get the rows after the last one, in their order
+        SavedGame next = SavedGame.after(base, CODE, snapshot, LAST_ROW);
+        assertEquals(11, next.entities.get(1).row);
+        assertEquals(12, next.entities.get(2).row);
+        assertNull(next.entities.get(3));
+        assertEquals(LAST_ROW + 1, next.entities.get(4).row);
+        assertEquals(LAST_ROW + 2, next.entities.get(5).row);
+        assertTrue(SavedGame.diff(next, snapshot).isEmpty());
+    }
+
+    @Test
+    public void mapChangedTest() {
+        SaveSnapshot.EntityRecord moved = new SaveSnapshot.EntityRecord(1, "Map2.2", "enemy", 10, 10);
+        SaveSnapshot snapshot = new SaveSnapshot(CODE, "Game", "2024-05-01", "Map2.2", 480, 960, 100, 100,
+                new ArrayList<>(Arrays.asList(moved)), new ArrayList<>(Arrays.asList("Apple")), null);
+        SavedGame.Delta delta = SavedGame.diff(base, snapshot);
+
+        assertTrue(delta.gameChanged);
+        assertEquals(1, delta.updated.size());
+        assertEquals("Map2.2", delta.updated.get(0).mapId);
+        assertEquals(2, delta.deleted.size());
+    }
+
+    @Test
+    public void unknownBaseTest() {
+        SaveSnapshot snapshot = createSnapshot(new SaveSnapshot.EntityRecord(1, "Map3", "enemy", 10, 10));
+        SavedGame.Delta delta = SavedGame.diff(null, snapshot);
+
+        // Everything is written again
+        assertTrue(delta.replaced);
+        assertTrue(delta.gameChanged && delta.playerChanged && delta.itemsChanged);
+        assertEquals(1, delta.inserted.size());
+        assertTrue(delta.updated.isEmpty());
+        assertTrue(delta.deleted.isEmpty());
+    }
+
+    @Test
+    public void isGameOfTest() {
+        assertTrue(base.isGameOf(createSnapshot()));
+        assertTrue(base.isGameOf(createSnapshot().withGameCode(null)));
+        assertFalse(base.isGameOf(createSnapshot().withGameCode(CODE + 1)));
+
+        // Another game with the same name, not saved yet
+        SaveSnapshot other = new SaveSnapshot(null, TOKEN + 1, "Game", "2024-05-01", "Map3", 480, 960, 100, 100,
+                new ArrayList<>(), new ArrayList<>(), null);
+        assertFalse(base.isGameOf(other));
+
+        // Nor is a game read from the database matched without a code
+        SavedGame read = new SavedGame(CODE, "Game", "2024-05-01", "Map3");
+        assertFalse(read.isGameOf(createSnapshot().withGameCode(null)));
+    }
+}
@@ -0,0 +1,62 @@
+package main.entities;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/** Enemy archetype loading test.*/
+public class ArchetypeRegistryTest {
+
+    ArchetypeRegistry registry;
+
+    @Before
+    public void setUp() {
+        registry = new ArchetypeRegistry();
+    }
+
+    @Test
+    public void parseTest() {
+
+        EnemyArchetype archetype = EnemyArchetype.parse("test,enemy,3,50,5,16,1,35,1,2,3,4");
+
+        assertEquals("test", archetype.id);
+        assertEquals("enemy", archetype.spriteId);
+        assertEquals(3, archetype.speed);
+        assertEquals(50, archetype.health);
+        assertEquals(35, archetype.maxPathLength);
+        assertEquals(4, archetype.colliderHeight);
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseInvalidTest() {
+        EnemyArchetype.parse("test,enemy,3");
+    }
+
+    @Test
+    public void getTest() {
+
+        assertTrue(registry.contains("brute"));
+        assertEquals("brute", registry.get("brute").id);
+
+        // Unknown ids fall back to the default archetype
+        assertSame(registry.getDefault(), registry.get("ENEMY"));
+        assertSame(registry.getDefault(), registry.get(null));
+        assertEquals(ArchetypeRegistry.DEFAULT_ID, registry.getDefault().id);
+
+    }
+
+    @Test
+    public void spawnArchetypeTest() {
+
+        // Entity file lines may name the archetype of the enemy
+        String[] lines = { "22,36,scout", "38,84, brute", "24,58" };
+        String[] expected = { "scout", "brute", ArchetypeRegistry.DEFAULT_ID };
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(expected[i], registry.get(EntityManager.spawnArchetype(lines[i].split(","))).id);
+        }
+
+    }
+
+}
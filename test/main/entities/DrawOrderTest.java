@@ -0,0 +1,47 @@
+package main.entities;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/** DrawOrder sorting test.*/
+public class DrawOrderTest {
+
+    @Test
+    public void sortTest() {
+
+        String[] items = { "a", "b", "c", "d", "e" };
+        int[] keys = { 5, 1, 4, 1, 3 };
+
+        DrawOrder.sort(items, keys, items.length);
+
+        assertArrayEquals(new int[] { 1, 1, 3, 4, 5 }, keys);
+        assertArrayEquals(new String[] { "b", "d", "e", "c", "a" }, items); // Ties keep their order
+
+    }
+
+    @Test
+    public void sortedInputTest() {
+
+        String[] items = { "a", "b", "c" };
+        int[] keys = { 1, 2, 3 };
+
+        DrawOrder.sort(items, keys, items.length);
+
+        assertArrayEquals(new String[] { "a", "b", "c" }, items);
+
+    }
+
+    @Test
+    public void partialSortTest() {
+
+        String[] items = { "a", "b", "c", "d" };
+        int[] keys = { 3, 2, 1, 0 };
+
+        // Only the first two items are sorted
+        DrawOrder.sort(items, keys, 2);
+
+        assertArrayEquals(new String[] { "b", "a", "c", "d" }, items);
+
+    }
+
+}
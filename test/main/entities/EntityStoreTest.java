@@ -0,0 +1,113 @@
+package main.entities;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/** EntityStore handle and swap-remove test.*/
+public class EntityStoreTest {
+
+    private EntityStore store;
+
+    @Before
+    public void setUp() {
+        store = new EntityStore(2);
+    }
+
+    @Test
+    public void createTest() {
+
+        int a = store.create();
+        int b = store.create();
+        int c = store.create(); // Forces the arrays to grow
+
+        assertEquals(3, store.size());
+        assertTrue(store.contains(a));
+        assertTrue(store.contains(b));
+        assertTrue(store.contains(c));
+        assertTrue(a != b);
+        assertTrue(b != c);
+        assertEquals(Direction.DOWN, store.getDirection(c));
+        assertEquals(1, store.getSpriteNum(c));
+
+    }
+
+    @Test
+    public void removeTest() {
+
+        int a = store.create();
+        int b = store.create();
+        int c = store.create();
+
+        store.worldX[store.slotOf(c)] = 42;
+
+        store.remove(a);
+
+        // Last entity is moved into the freed slot, but its handle is kept
+        assertEquals(2, store.size());
+        assertFalse(store.contains(a));
+        assertEquals(0, store.slotOf(c));
+        assertEquals(c, store.handleAt(0));
+        assertEquals(42, store.getWorldX(c));
+        assertEquals(1, store.slotOf(b));
+
+        // Freed handles are reused
+        int d = store.create();
+        assertEquals(a, d);
+        assertEquals(0, store.getWorldX(d));
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidHandleTest() {
+        int a = store.create();
+        store.remove(a);
+        store.getWorldX(a);
+    }
+
+    @Test
+    public void countInRangeTest() {
+
+        int a = store.create();
+        int b = store.create();
+        int c = store.create();
+
+        store.worldX[store.slotOf(a)] = 10;
+        store.worldX[store.slotOf(b)] = 100;
+        store.worldX[store.slotOf(c)] = 20;
+        store.flags[store.slotOf(c)] = EntityStore.DEAD;
+
+        assertEquals(1, store.countInRange(0, 0, 50));
+        assertEquals(2, store.countInRange(60, 0, 50));
+
+    }
+
+    @Test
+    public void movementSystemTest() {
+
+        int a = store.create();
+        int b = store.create();
+        int slotA = store.slotOf(a);
+        int slotB = store.slotOf(b);
+
+        store.components[slotA] = EntityStore.POSITION | EntityStore.MOTION | EntityStore.AI;
+        store.components[slotB] = EntityStore.POSITION | EntityStore.MOTION;
+        store.speed[slotA] = 2;
+        store.speed[slotB] = 2;
+        store.direction[slotA] = (byte) Direction.LEFT.ordinal();
+        store.direction[slotB] = (byte) Direction.LEFT.ordinal();
+        store.setFlag(a, (byte) (EntityStore.ACTIVE | EntityStore.STEPPING));
+        store.setFlag(b, (byte) (EntityStore.ACTIVE | EntityStore.STEPPING));
+
+        new MovementSystem().update(store);
+
+        assertEquals(-2, store.getWorldX(a));
+        assertEquals(0, store.getWorldX(b)); // Without AI it isn't processed
+
+        store.clearFlag(EntityStore.ACTIVE);
+        new MovementSystem().update(store);
+        assertEquals(-2, store.getWorldX(a));
+
+    }
+
+}
@@ -19,6 +19,7 @@ public class EntityTest {
     @Before
     public void setUp() {
         gamePanel = new GamePanel();
+        gamePanel.resourceLoader.await();
         ent1 = new Enemy(gamePanel, 0, 0);
         ent2 = new Enemy(gamePanel, 0, 0);
     }
@@ -65,19 +66,19 @@ public class EntityTest {
     @Test
     public void getDirectionTest() {
 
-        assertEquals("up", Entity.getDirection(ent1, ent2));
+        assertEquals(Direction.UP, Entity.getDirection(ent1, ent2));
 
         ent2.worldX = gamePanel.tileSize * 10;
         ent2.worldY = 0;
-        assertEquals("right", Entity.getDirection(ent1, ent2));
+        assertEquals(Direction.RIGHT, Entity.getDirection(ent1, ent2));
 
         ent2.worldX = gamePanel.tileSize * 10;
         ent2.worldY = gamePanel.tileSize * 10 + 1;
-        assertEquals("down", Entity.getDirection(ent1, ent2));
+        assertEquals(Direction.DOWN, Entity.getDirection(ent1, ent2));
 
         ent2.worldX = gamePanel.tileSize * -10;
         ent2.worldY = gamePanel.tileSize * 10 - 1;
-        assertEquals("left", Entity.getDirection(ent1, ent2));
+        assertEquals(Direction.LEFT, Entity.getDirection(ent1, ent2));
 
     }
 
@@ -0,0 +1,64 @@
+package main.entities;
+
+import main.tiles.ArrayWorldMap;
+import main.tiles.WorldMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+/** Line of sight ray casting test.*/
+public class LineOfSightTest {
+
+    boolean[][] solid;
+
+    @Before
+    public void setUp() {
+        solid = new boolean[10][10];
+
+        // Vertical wall at column 5, from row 0 to row 6
+        for(int row = 0; row <= 6; row++) {
+            solid[row][5] = true;
+        }
+    }
+
+    /** Builds a world whose collisions are the solid tiles of a grid.*/
+    private WorldMap world(boolean[][] solid) {
+        int[][] collisions = new int[solid.length][solid[0].length];
+        for(int row = 0; row < solid.length; row++) {
+            for(int col = 0; col < solid[0].length; col++) {
+                collisions[row][col] = solid[row][col] ? 0 : -1;
+            }
+        }
+        return new ArrayWorldMap(new ArrayList<>(), collisions);
+    }
+
+    @Test
+    public void clearTest() {
+        assertTrue(LineOfSight.isClear(world(solid), 2, 2, 2, 2));
+        assertTrue(LineOfSight.isClear(world(solid), 0, 0, 9, 4));
+        assertTrue(LineOfSight.isClear(world(solid), 8, 0, 8, 9)); // Below the wall
+        assertTrue(LineOfSight.isClear(world(solid), 2, 5, 2, 0)); // The start tile isn't checked
+    }
+
+    @Test
+    public void blockedTest() {
+        assertFalse(LineOfSight.isClear(world(solid), 2, 2, 2, 8));
+        assertFalse(LineOfSight.isClear(world(solid), 0, 0, 6, 9));
+        assertFalse(LineOfSight.isClear(world(solid), 3, 8, 1, 1)); // Same result both ways
+        assertFalse(LineOfSight.isClear(world(solid), 1, 1, 3, 8));
+    }
+
+    @Test
+    public void cornerTest() {
+        solid = new boolean[3][3];
+        solid[0][1] = true;
+        assertTrue(LineOfSight.isClear(world(solid), 0, 0, 1, 1));
+
+        solid[1][0] = true;
+        assertFalse(LineOfSight.isClear(world(solid), 0, 0, 1, 1));
+    }
+
+}
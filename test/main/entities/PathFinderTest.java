@@ -18,6 +18,7 @@ public class PathFinderTest {
     @Before
     public void setUp() {
         gamePanel = new GamePanel();
+        gamePanel.resourceLoader.await();
         pathFinder = gamePanel.pathFinder;
         player = gamePanel.player;
 
@@ -0,0 +1,76 @@
+package main.tiles;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+
+/** Chunked world storage test.*/
+public class ChunkedWorldMapTest {
+
+    MapFile map;
+    ChunkedWorldMap world;
+
+    @Before
+    public void setUp() throws Exception {
+        map = MapFile.read("/main/res/maps/Map3/Map_3.map");
+
+        File file = File.createTempFile("world", ".world");
+        file.deleteOnExit();
+        ChunkedWorldMap.write(map, file.toPath(), 8); // Chunk size not dividing the map
+        world = new ChunkedWorldMap(file.toPath());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        world.close();
+    }
+
+    @Test
+    public void sameContentTest() {
+
+        WorldMap expected = new ArrayWorldMap(map);
+        assertEquals(expected.getRows(), world.getRows());
+        assertEquals(expected.getCols(), world.getCols());
+        assertEquals(expected.getLayerCount(), world.getLayerCount());
+
+        for(int row = 0; row < map.rows; row++) {
+            for(int col = 0; col < map.cols; col++) {
+                for(int layer = 0; layer < map.layers.size(); layer++) {
+                    assertEquals(expected.getTile(layer, row, col), world.getTile(layer, row, col));
+                }
+                assertEquals(expected.getCollision(row, col), world.getCollision(row, col));
+            }
+        }
+
+    }
+
+    @Test
+    public void outOfBoundsTest() {
+        assertEquals(-1, world.getTile(0, -1, 0));
+        assertEquals(-1, world.getCollision(0, map.cols));
+        assertTrue(world.isSolid(map.rows, 0));
+    }
+
+    @Test
+    public void pagingTest() {
+
+        // Reading the whole world maps more chunks than the limit
+        for(int row = 0; row < map.rows; row++) {
+            for(int col = 0; col < map.cols; col++) {
+                world.getTile(0, row, col);
+            }
+        }
+        assertTrue(world.getLoadedChunks() <= world.MAX_LOADED_CHUNKS);
+
+        // The chunks around the focus are mapped ahead
+        world.focus(45, 50);
+        assertTrue(world.getLoadedChunks() > 0);
+        assertEquals(map.layers.get(0)[45][50], world.getTile(0, 45, 50));
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package main.tiles;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+/** Compiled map format test.*/
+public class MapFileTest {
+
+    @Test
+    public void writeReadTest() throws Exception {
+
+        ArrayList<int[][]> layers = new ArrayList<>();
+        layers.add(new int[][] {{0, 1, 2}, {-1, 839, 3}});
+        layers.add(new int[][] {{-1, -1, -1}, {4, 5, 6}});
+        int[][] collisions = {{0, -1, 15}, {-1, -1, 2}};
+
+        File file = File.createTempFile("map", ".map");
+        file.deleteOnExit();
+        MapCompiler.compile(layers, collisions).write(file.toPath());
+
+        MapFile map;
+        try (FileChannel channel = FileChannel.open(file.toPath())) {
+            map = MapFile.read(channel);
+        }
+
+        assertEquals(2, map.rows);
+        assertEquals(3, map.cols);
+        assertEquals(2, map.layers.size());
+        assertArrayEquals(layers.get(0), map.layers.get(0));
+        assertArrayEquals(layers.get(1), map.layers.get(1));
+        assertArrayEquals(collisions, map.collisions);
+
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void differentSizesTest() {
+        ArrayList<int[][]> layers = new ArrayList<>();
+        layers.add(new int[][] {{0, 1}, {2, 3}});
+        MapCompiler.compile(layers, new int[][] {{0, 1, 2}, {3, 4, 5}});
+    }
+
+    @Test
+    public void compiledMapTest() throws Exception {
+
+        // The committed compiled map must be up to date with its CSV sources
+        Path folder = Paths.get("src/main/res/maps/Map3");
+        MapFile map = MapFile.read("/main/res/maps/Map3/Map_3.map");
+
+        assertNotNull(map);
+        assertArrayEquals(MapCompiler.readCsv(folder.resolve("Map_3_Ground.csv")), map.layers.get(0));
+        assertArrayEquals(MapCompiler.readCsv(folder.resolve("Map_3_Props.csv")), map.layers.get(3));
+        assertArrayEquals(MapCompiler.readCsv(folder.resolve("Map_3_Collisions.csv")), map.collisions);
+
+    }
+
+}
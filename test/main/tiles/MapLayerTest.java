@@ -0,0 +1,57 @@
+package main.tiles;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+/** Compact map layer test.*/
+public class MapLayerTest {
+
+    private final int[][] dense = {{0, 1, 2, 3}, {839, 5, 6, 7}, {8, 9, 10, 11}};
+    private final int[][] shapes = {{0, -1, 15, 2}, {-1, 3, 4, 5}, {6, 7, 8, 9}};
+    private final int[][] sparse = {{-1, -1, -1, -1}, {-1, 12, 12, -1}, {-1, -1, -1, 700}};
+
+    @Test
+    public void layersTest() {
+        for(int[][] grid : new int[][][] {dense, shapes, sparse}) {
+            assertLayer(grid, new ShortLayer(grid));
+            assertLayer(grid, new RunLengthLayer(grid));
+        }
+        assertLayer(shapes, new ByteLayer(shapes));
+        assertLayer(sparse, MapLayer.of(sparse));
+    }
+
+    @Test
+    public void chooseLayerTest() {
+        assertTrue(MapLayer.of(dense) instanceof ShortLayer);
+        assertTrue(MapLayer.of(shapes) instanceof ByteLayer);
+
+        int[][] empty = new int[64][64];
+        for(int[] row : empty) {
+            Arrays.fill(row, -1);
+        }
+        empty[10][20] = 400;
+        MapLayer layer = MapLayer.of(empty);
+        assertTrue(layer instanceof RunLengthLayer);
+        assertTrue(layer.getBytes() < 64 * 64);
+        assertEquals(400, layer.get(10, 20));
+        assertEquals(-1, layer.get(10, 21));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void byteOverflowTest() {
+        new ByteLayer(dense);
+    }
+
+    private void assertLayer(int[][] grid, MapLayer layer) {
+        assertEquals(grid.length, layer.getRows());
+        assertEquals(grid[0].length, layer.getCols());
+        for(int row = 0; row < grid.length; row++) {
+            for(int col = 0; col < grid[0].length; col++) {
+                assertEquals(grid[row][col], layer.get(row, col));
+            }
+        }
+    }
+}